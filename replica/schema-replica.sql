@@ -0,0 +1,26 @@
+-- Change notifications for the in-memory replica. Apply only where clients.replica.enabled
+-- is set: every INSERT, UPDATE and DELETE on clientes pays for a pg_notify while the
+-- trigger exists. Remove with:
+--   DROP TRIGGER IF EXISTS clientes_notify_change ON clientes;
+--   DROP FUNCTION IF EXISTS notify_clientes_change();
+-- Payload: <operation>:<id>:<change time in epoch millis>
+CREATE OR REPLACE FUNCTION notify_clientes_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    changed_id BIGINT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed_id := OLD.id;
+    ELSE
+        changed_id := NEW.id;
+    END IF;
+    PERFORM pg_notify('clientes_changes',
+        TG_OP || ':' || changed_id || ':' || (EXTRACT(EPOCH FROM clock_timestamp()) * 1000)::BIGINT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS clientes_notify_change ON clientes;
+CREATE TRIGGER clientes_notify_change
+AFTER INSERT OR UPDATE OR DELETE ON clientes
+FOR EACH ROW EXECUTE FUNCTION notify_clientes_change();
@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS client_duplicate_candidates;
+DROP SEQUENCE IF EXISTS client_duplicate_runs_seq;
 DROP TABLE IF EXISTS clientes;
 
 CREATE TABLE clientes (
@@ -10,21 +12,47 @@ CREATE TABLE clientes (
     telefono_celular VARCHAR(30) NOT NULL,
     email VARCHAR(150) NOT NULL UNIQUE,
     fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    fecha_modificacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    fecha_modificacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- month * 100 + day, so "birthday in the next N days" is a range scan (at most two across the year end)
+    birth_month_day SMALLINT GENERATED ALWAYS AS
+        ((EXTRACT(MONTH FROM fecha_nacimiento) * 100 + EXTRACT(DAY FROM fecha_nacimiento))::SMALLINT) STORED
 );
 
+CREATE INDEX idx_clientes_birth_month_day ON clientes (birth_month_day, id);
+
+-- Possible duplicates found by the dedup job (dedup profile), pending manual review.
+-- Clients with the same run_id and cluster_id are likely the same person.
+CREATE TABLE client_duplicate_candidates (
+    run_id BIGINT NOT NULL,
+    cluster_id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    score REAL NOT NULL,
+    reviewed BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (run_id, client_id)
+);
+
+CREATE INDEX idx_client_duplicate_candidates_cluster ON client_duplicate_candidates (run_id, cluster_id);
+
+-- run_id of each dedup run.
+CREATE SEQUENCE client_duplicate_runs_seq;
+
+
+-- Trigram indexes so ILIKE '%name%' is an index scan instead of a sequential scan
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_clientes_nombre_trgm ON clientes USING gin (nombre gin_trgm_ops);
+CREATE INDEX idx_clientes_apellido_trgm ON clientes USING gin (apellido gin_trgm_ops);
 
 -- STORED PROCEDURE: Search clients by name (case-insensitive)
+-- A single-statement STABLE SQL function is inlined into the calling query, so the
+-- planner sees the ILIKE predicates (and the trigram indexes) with the actual argument.
 CREATE OR REPLACE FUNCTION search_clients_by_name(p_name VARCHAR)
 RETURNS SETOF clientes AS $$
-BEGIN
-    RETURN QUERY
     SELECT *
     FROM clientes
     WHERE nombre ILIKE '%' || p_name || '%'
        OR apellido ILIKE '%' || p_name || '%';
-END;
-$$ LANGUAGE plpgsql;
+$$ LANGUAGE sql STABLE;
 
 -- SEED DATA
 INSERT INTO clientes (
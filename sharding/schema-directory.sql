@@ -0,0 +1,13 @@
+-- Schema for the directory database (spring.datasource) when clients.sharding.enabled is set.
+-- key_type: 'T' = cuit, 'E' = email.
+DROP TABLE IF EXISTS client_directory;
+DROP SEQUENCE IF EXISTS client_id_seq;
+
+CREATE SEQUENCE client_id_seq;
+
+CREATE TABLE client_directory (
+    key_type CHAR(1) NOT NULL,
+    key_value VARCHAR(150) NOT NULL,
+    client_id BIGINT NOT NULL,
+    PRIMARY KEY (key_type, key_value)
+);
@@ -0,0 +1,26 @@
+-- Schema for each shard database (clients.sharding.shards[*]).
+-- Ids are assigned by the application: <sequence from client_id_seq> << bucket-bits | bucket.
+-- Uniqueness of cuit and email across shards is enforced by client_directory.
+DROP TABLE IF EXISTS clientes;
+
+CREATE TABLE clientes (
+    id BIGINT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    razon_social VARCHAR(150) NOT NULL,
+    cuit VARCHAR(20) NOT NULL UNIQUE,
+    fecha_nacimiento DATE NOT NULL,
+    telefono_celular VARCHAR(30) NOT NULL,
+    email VARCHAR(150) NOT NULL UNIQUE,
+    fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    fecha_modificacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- month * 100 + day, so "birthday in the next N days" is a range scan (at most two across the year end)
+    birth_month_day SMALLINT GENERATED ALWAYS AS
+        ((EXTRACT(MONTH FROM fecha_nacimiento) * 100 + EXTRACT(DAY FROM fecha_nacimiento))::SMALLINT) STORED
+);
+
+CREATE INDEX idx_clientes_birth_month_day ON clientes (birth_month_day, id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_clientes_nombre_trgm ON clientes USING gin (nombre gin_trgm_ops);
+CREATE INDEX idx_clientes_apellido_trgm ON clientes USING gin (apellido gin_trgm_ops);
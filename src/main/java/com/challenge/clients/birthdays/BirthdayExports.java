@@ -0,0 +1,278 @@
+package com.challenge.clients.birthdays;
+
+import com.challenge.clients.dto.BirthdayExportDTO;
+import com.challenge.clients.dto.BirthdayExportDTO.Status;
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.exception.ExportNotReadyException;
+import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.service.ClientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background exports of upcoming birthdays to NDJSON files, for callers that want the
+ * whole window rather than paging through {@code GET /api/clients/birthdays}.
+ * <p>
+ * Exports run one at a time and walk the window with the same keyset pages as the
+ * endpoint, so a large window never holds more than one page in memory. Finished files
+ * are deleted {@code clients.birthdays.export-ttl-ms} after the export completes.
+ * <p>
+ * Each export keeps its metadata in {@code <id>.json} next to its {@code <id>.ndjson} in
+ * {@code clients.birthdays.export-dir}, so finished exports survive a restart. On startup
+ * exports that were still pending or running are marked {@code FAILED} and files without
+ * usable metadata are deleted.
+ */
+@Component
+public class BirthdayExports {
+
+    private static final Logger log = LoggerFactory.getLogger(BirthdayExports.class);
+
+    private final ClientService clientService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long ttlMs;
+    private final Path directory;
+
+    private final Map<String, Export> exports = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "clients-birthday-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BirthdayExports(ClientService clientService,
+                           ObjectMapper objectMapper,
+                           @Value("${clients.birthdays.export-batch-size:1000}") int batchSize,
+                           @Value("${clients.birthdays.export-ttl-ms:3600000}") long ttlMs,
+                           @Value("${clients.birthdays.export-dir:data/birthday-exports}") Path directory) throws IOException {
+        this.clientService = clientService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.ttlMs = ttlMs;
+        this.directory = Files.createDirectories(directory);
+        recover();
+    }
+
+    public BirthdayExportDTO submit(int days) {
+        BirthdayWindow.of(LocalDate.now(), days);
+        Export export = new Export(UUID.randomUUID().toString(), days, LocalDateTime.now(), directory);
+        try {
+            save(export, Status.PENDING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create birthday export in " + directory, e);
+        }
+        exports.put(export.id, export);
+        executor.execute(() -> run(export));
+        log.info("Birthday export {} submitted for {} days", export.id, days);
+        return export.toDTO();
+    }
+
+    public BirthdayExportDTO status(String id) {
+        return find(id).toDTO();
+    }
+
+    /**
+     * Returns the NDJSON file of a finished export.
+     */
+    public Path result(String id) {
+        Export export = find(id);
+        if (export.status != Status.DONE) {
+            throw new ExportNotReadyException("Export " + id + " is " + export.status);
+        }
+        return export.file;
+    }
+
+    @Scheduled(fixedDelayString = "${clients.birthdays.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(ttlMs));
+        exports.values().removeIf(export -> {
+            if (export.finishedAt == null || export.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            delete(export.file);
+            delete(metadataFile(export.id));
+            return true;
+        });
+    }
+
+    /**
+     * Stops the running export, if any; it is reported as {@code FAILED} after the restart.
+     * Finished exports are kept on disk.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reloads the exports described by the metadata files and deletes everything else in the
+     * directory: partial results of interrupted exports and files without metadata.
+     */
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path metadata : files) {
+                try {
+                    Export export = Export.of(objectMapper.readValue(metadata.toFile(), BirthdayExportDTO.class), directory);
+                    if (export.status == Status.PENDING || export.status == Status.RUNNING) {
+                        fail(export, "Interrupted by restart");
+                    } else if (export.status == Status.DONE && !Files.exists(export.file)) {
+                        fail(export, "Result file missing after restart");
+                    }
+                    exports.put(export.id, export);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Discarding unreadable export metadata {}: {}", metadata, e.getMessage());
+                    delete(metadata);
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Export export = exports.get(name.substring(0, Math.max(0, name.lastIndexOf('.'))));
+                boolean known = export != null && (name.endsWith(".json")
+                        || (name.endsWith(".ndjson") && export.status == Status.DONE));
+                if (!known) {
+                    log.info("Deleting orphaned export file {}", file);
+                    delete(file);
+                }
+            }
+        }
+        if (!exports.isEmpty()) {
+            log.info("Recovered {} birthday exports from {}", exports.size(), directory);
+        }
+    }
+
+    private Export find(String id) {
+        Export export = exports.get(id);
+        if (export == null) {
+            throw new ResourceNotFoundException("Export not found with id: " + id);
+        }
+        return export;
+    }
+
+    private void run(Export export) {
+        export.status = Status.RUNNING;
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(export.file))) {
+                String cursor = null;
+                do {
+                    ClientBirthdayPageDTO page = clientService.findUpcomingBirthdays(export.days, cursor, batchSize);
+                    for (ClientResponseDTO client : page.getClients()) {
+                        out.write(objectMapper.writeValueAsBytes(client));
+                        out.write('\n');
+                    }
+                    export.rows += page.getClients().size();
+                    cursor = page.getNextCursor();
+                } while (cursor != null);
+            }
+            export.finishedAt = LocalDateTime.now();
+            save(export, Status.DONE);
+            export.status = Status.DONE;
+            log.info("Birthday export {} finished with {} rows", export.id, export.rows);
+        } catch (IOException | RuntimeException e) {
+            fail(export, e.getMessage());
+            log.error("Birthday export {} failed: {}", export.id, e.getMessage(), e);
+        }
+    }
+
+    private void fail(Export export, String error) {
+        delete(export.file);
+        export.error = error;
+        export.finishedAt = LocalDateTime.now();
+        try {
+            save(export, Status.FAILED);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save metadata of failed export {}: {}", export.id, e.getMessage());
+        }
+        export.status = Status.FAILED;
+    }
+
+    /**
+     * Replaces the metadata file atomically, so a crash leaves either the old or the new one.
+     * Called before {@code status} changes in memory, so a caller never sees a state that is
+     * not on disk yet.
+     */
+    private void save(Export export, Status status) throws IOException {
+        Path target = metadataFile(export.id);
+        Path tmp = directory.resolve(export.id + ".json.tmp");
+        BirthdayExportDTO dto = export.toDTO();
+        dto.setStatus(status);
+        objectMapper.writeValue(tmp.toFile(), dto);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path metadataFile(String id) {
+        return directory.resolve(id + ".json");
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class Export {
+
+        private final String id;
+        private final int days;
+        private final LocalDateTime createdAt;
+        private final Path file;
+        private volatile Status status = Status.PENDING;
+        private volatile long rows;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Export(String id, int days, LocalDateTime createdAt, Path directory) {
+            this.id = id;
+            this.days = days;
+            this.createdAt = createdAt;
+            this.file = directory.resolve(id + ".ndjson");
+        }
+
+        static Export of(BirthdayExportDTO dto, Path directory) {
+            Export export = new Export(UUID.fromString(dto.getId()).toString(), dto.getDays(), dto.getCreatedAt(), directory);
+            export.status = dto.getStatus();
+            export.rows = dto.getRows();
+            export.finishedAt = dto.getFinishedAt();
+            export.error = dto.getError();
+            return export;
+        }
+
+        BirthdayExportDTO toDTO() {
+            return BirthdayExportDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .days(days)
+                    .rows(rows)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
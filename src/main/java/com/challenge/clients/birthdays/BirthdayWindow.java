@@ -0,0 +1,132 @@
+package com.challenge.clients.birthdays;
+
+import com.challenge.clients.exception.InvalidRequestException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * The birthdays falling within {@code days} days of an anchor date, expressed as ranges
+ * of {@code birth_month_day} ({@code month * 100 + day}) in the order they come up.
+ * <p>
+ * A window that crosses the year end is split into two ranges, {@code [start, 1231]} and
+ * {@code [101, end]}, each of which is a plain range scan on the
+ * {@code (birth_month_day, id)} index. Keyset positions inside the window are carried
+ * in an opaque cursor together with the anchor date, so paging stays consistent across
+ * midnight.
+ */
+public final class BirthdayWindow {
+
+    public static final int MAX_DAYS = 366;
+
+    static final int FIRST_DAY = 101;
+    static final int LAST_DAY = 1231;
+
+    private static final DateTimeFormatter ANCHOR = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final LocalDate anchor;
+    private final int days;
+    private final List<Segment> segments;
+
+    private BirthdayWindow(LocalDate anchor, int days) {
+        this.anchor = anchor;
+        this.days = days;
+        this.segments = segments(anchor, days);
+    }
+
+    public static BirthdayWindow of(LocalDate anchor, int days) {
+        if (days < 0 || days > MAX_DAYS) {
+            throw new InvalidRequestException("days must be between 0 and " + MAX_DAYS);
+        }
+        return new BirthdayWindow(anchor, days);
+    }
+
+    public static int monthDay(LocalDate date) {
+        return date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    public LocalDate anchor() {
+        return anchor;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * Resolves a cursor produced by {@link #cursor}. The anchor date stored in the
+     * cursor replaces {@code today}.
+     */
+    public static Position parseCursor(String cursor, int days) {
+        String[] parts = cursor.split("\\.");
+        try {
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            BirthdayWindow window = of(LocalDate.parse(parts[0], ANCHOR), days);
+            int monthDay = Integer.parseInt(parts[1]);
+            long id = Long.parseLong(parts[2]);
+            int segment = window.segmentOf(monthDay);
+            if (segment < 0) {
+                throw new IllegalArgumentException();
+            }
+            return new Position(window, segment, monthDay, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public Position start() {
+        return new Position(this, 0, 0, 0);
+    }
+
+    public String cursor(int monthDay, long id) {
+        return anchor.format(ANCHOR) + "." + monthDay + "." + id;
+    }
+
+    private int segmentOf(int monthDay) {
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).contains(monthDay)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Segment> segments(LocalDate anchor, int days) {
+        int start = monthDay(anchor);
+        if (days >= 365) {
+            // Covers every day of the year; still start at the anchor so results come up in order.
+            return start == FIRST_DAY
+                    ? List.of(new Segment(FIRST_DAY, LAST_DAY))
+                    : List.of(new Segment(start, LAST_DAY), new Segment(FIRST_DAY, start - 1));
+        }
+        int end = monthDay(anchor.plusDays(days));
+        return end >= start
+                ? List.of(new Segment(start, end))
+                : List.of(new Segment(start, LAST_DAY), new Segment(FIRST_DAY, end));
+    }
+
+    /**
+     * An inclusive range of {@code birth_month_day} values.
+     */
+    public record Segment(int from, int to) {
+
+        boolean contains(int monthDay) {
+            return monthDay >= from && monthDay <= to;
+        }
+    }
+
+    /**
+     * Keyset position: rows after {@code (monthDay, id)} in segment {@code segment}.
+     * {@code (0, 0)} precedes every row.
+     */
+    public record Position(BirthdayWindow window, int segment, int monthDay, long id) {
+    }
+}
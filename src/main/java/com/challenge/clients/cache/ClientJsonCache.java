@@ -0,0 +1,248 @@
+package com.challenge.clients.cache;
+
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Caches the UTF-8 JSON encoding of each client, keyed by id and validated against
+ * {@code updatedAt}, so read endpoints can skip building and serializing the DTO again.
+ * When the caller already knows the version ({@link #cached(Long, LocalDateTime)}) the
+ * DTO is not built at all.
+ * <p>
+ * Entries are spread over {@code clients.json-cache.stripes} independently locked LRU
+ * stripes by id, each with an equal share of {@code clients.json-cache.max-bytes}. With
+ * {@code clients.json-cache.off-heap} the encoded bytes live in one {@link OffHeapArena}
+ * per stripe, allocated once at startup, keeping large working sets out of the heap
+ * without growing native memory.
+ * <p>
+ * Returned arrays must not be modified: in heap mode they are the cached entries
+ * themselves, handed to the response without a copy.
+ */
+@Component
+public class ClientJsonCache {
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final ObjectMapper objectMapper;
+    private final Stripe[] stripes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ClientJsonCache(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${clients.json-cache.max-bytes:16777216}") long maxBytes,
+                           @Value("${clients.json-cache.off-heap:false}") boolean offHeap,
+                           @Value("${clients.json-cache.stripes:16}") int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("clients.json-cache.stripes must be a power of two, got " + stripes);
+        }
+        this.objectMapper = objectMapper;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(maxBytes / stripes, offHeap);
+        }
+
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("clients.json.cache.bytes", this, ClientJsonCache::totalBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached encoding of client {@code id} at {@code version}, or {@code null}
+     * if there is none.
+     */
+    public byte[] cached(Long id, LocalDateTime version) {
+        byte[] json = stripe(id).get(id, version);
+        if (json != null) {
+            hits.increment();
+        }
+        return json;
+    }
+
+    public byte[] encode(ClientResponseDTO client) {
+        return lookup(client);
+    }
+
+    /**
+     * Builds a JSON array by concatenating the cached encoding of each element.
+     */
+    public byte[] encodeArray(List<ClientResponseDTO> clients) {
+        if (clients.isEmpty()) {
+            return EMPTY_ARRAY.clone();
+        }
+        byte[][] fragments = new byte[clients.size()][];
+        int length = 1 + clients.size();
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = lookup(clients.get(i));
+            length += fragments[i].length;
+        }
+
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        bytes[offset++] = '[';
+        for (int i = 0; i < fragments.length; i++) {
+            if (i > 0) {
+                bytes[offset++] = ',';
+            }
+            System.arraycopy(fragments[i], 0, bytes, offset, fragments[i].length);
+            offset += fragments[i].length;
+        }
+        bytes[offset] = ']';
+        return bytes;
+    }
+
+    public void evict(Long id) {
+        stripe(id).evict(id);
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.totalBytes();
+        }
+        return total;
+    }
+
+    private byte[] lookup(ClientResponseDTO client) {
+        LocalDateTime version = client.getUpdatedAt();
+        boolean cacheable = version != null && client.getId() != null;
+        if (cacheable) {
+            byte[] cached = cached(client.getId(), version);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        misses.increment();
+        byte[] json = serialize(client);
+        if (cacheable) {
+            stripe(client.getId()).put(client.getId(), version, json);
+        }
+        return json;
+    }
+
+    private Stripe stripe(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    private byte[] serialize(ClientResponseDTO client) {
+        try {
+            return objectMapper.writeValueAsBytes(client);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("clients.json.cache.requests")
+                .description("Client JSON encodings by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One LRU map with its own byte budget and, off-heap, its own arena. All access is
+     * synchronized on the stripe.
+     */
+    private static final class Stripe {
+
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final OffHeapArena arena;
+        private final long maxBytes;
+        private long totalBytes;
+
+        Stripe(long maxBytes, boolean offHeap) {
+            this.arena = offHeap ? new OffHeapArena(maxBytes) : null;
+            this.maxBytes = offHeap ? (long) arena.capacityChunks() * OffHeapArena.CHUNK_SIZE : maxBytes;
+        }
+
+        synchronized byte[] get(Long id, LocalDateTime version) {
+            Entry cached = entries.get(id);
+            if (cached == null || !cached.version().equals(version)) {
+                return null;
+            }
+            // Copied under the lock: once evicted, the chunks may be reused.
+            return cached.json() != null ? cached.json() : read(cached);
+        }
+
+        void put(Long id, LocalDateTime version, byte[] json) {
+            long size = arena == null ? json.length : (long) OffHeapArena.chunksFor(json.length) * OffHeapArena.CHUNK_SIZE;
+            if (size > maxBytes) {
+                return;
+            }
+            synchronized (this) {
+                Entry previous = entries.remove(id);
+                if (previous != null) {
+                    release(previous);
+                }
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (totalBytes + size > maxBytes && eldest.hasNext()) {
+                    Entry evicted = eldest.next();
+                    eldest.remove();
+                    release(evicted);
+                }
+                Entry entry;
+                if (arena == null) {
+                    entry = new Entry(version, json, null, json.length);
+                } else {
+                    int[] chunks = arena.store(json);
+                    if (chunks == null) {
+                        // Only if the accounting and the arena disagree; leave the client uncached.
+                        return;
+                    }
+                    entry = new Entry(version, null, chunks, json.length);
+                }
+                entries.put(id, entry);
+                totalBytes += size;
+            }
+        }
+
+        synchronized void evict(Long id) {
+            Entry removed = entries.remove(id);
+            if (removed != null) {
+                release(removed);
+            }
+        }
+
+        synchronized long totalBytes() {
+            return totalBytes;
+        }
+
+        private byte[] read(Entry entry) {
+            byte[] json = new byte[entry.length()];
+            arena.read(entry.chunks(), entry.length(), json, 0);
+            return json;
+        }
+
+        private void release(Entry entry) {
+            if (entry.chunks() != null) {
+                arena.free(entry.chunks());
+                totalBytes -= (long) entry.chunks().length * OffHeapArena.CHUNK_SIZE;
+            } else {
+                totalBytes -= entry.length();
+            }
+        }
+    }
+
+    /**
+     * Holds either the bytes themselves ({@code json}) or the arena chunks they occupy.
+     */
+    private record Entry(LocalDateTime version, byte[] json, int[] chunks, int length) {
+    }
+}
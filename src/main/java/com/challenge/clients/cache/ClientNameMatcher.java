@@ -0,0 +1,36 @@
+package com.challenge.clients.cache;
+
+/**
+ * In-memory equivalent of the {@code nombre ILIKE '%name%' OR apellido ILIKE '%name%'}
+ * predicate used by {@code search_clients_by_name}.
+ */
+public final class ClientNameMatcher {
+
+    private ClientNameMatcher() {
+    }
+
+    /**
+     * Queries containing LIKE wildcards or escapes are evaluated differently by the
+     * database, so they can't be answered from memory.
+     */
+    public static boolean isMatchableInMemory(String query) {
+        return query.indexOf('%') < 0 && query.indexOf('_') < 0 && query.indexOf('\\') < 0;
+    }
+
+    public static boolean matches(String firstName, String lastName, String query) {
+        return containsIgnoreCase(firstName, query) || containsIgnoreCase(lastName, query);
+    }
+
+    static boolean containsIgnoreCase(String value, String query) {
+        if (value == null) {
+            return false;
+        }
+        int max = value.length() - query.length();
+        for (int i = 0; i <= max; i++) {
+            if (value.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,188 @@
+package com.challenge.clients.cache;
+
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.service.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches the results of name searches for type-ahead queries.
+ * <p>
+ * A query whose prefix is already cached is answered by filtering the prefix result in
+ * memory, since every row matching "jua" also matches "ju". Entries are evicted in LRU
+ * order once {@code max-entries} is reached, and concurrent misses for the same query
+ * share a single database call.
+ */
+@Component
+public class ClientSearchCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientSearchCache.class);
+
+    private final int maxEntries;
+    private final int maxResultSize;
+    private final Map<String, List<ClientResponseDTO>> entries;
+    private final SingleFlight<String, List<ClientResponseDTO>> loads;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter prefixHits;
+    private final Counter misses;
+    private final Counter bypassed;
+
+    public ClientSearchCache(MeterRegistry meterRegistry,
+                             @Value("${clients.search-cache.max-entries:1000}") int maxEntries,
+                             @Value("${clients.search-cache.max-result-size:500}") int maxResultSize,
+                             @Value("${clients.single-flight.max-wait-ms:2000}") long maxWaitMs) {
+        this.maxEntries = maxEntries;
+        this.maxResultSize = maxResultSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<ClientResponseDTO>> eldest) {
+                return size() > ClientSearchCache.this.maxEntries;
+            }
+        };
+
+        this.hits = requests(meterRegistry, "hit");
+        this.prefixHits = requests(meterRegistry, "prefix_hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.bypassed = requests(meterRegistry, "bypass");
+        this.loads = new SingleFlight<>("search-cache", meterRegistry, Duration.ofMillis(maxWaitMs));
+        FunctionCounter.builder("clients.search.cache.coalesced", loads, SingleFlight::coalescedCount)
+                .description("Search cache loads that joined an in-flight database call")
+                .register(meterRegistry);
+        Gauge.builder("clients.search.cache.size", this, ClientSearchCache::size)
+                .register(meterRegistry);
+        Gauge.builder("clients.search.cache.hit.ratio", this, ClientSearchCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    public List<ClientResponseDTO> search(String name, Function<String, List<ClientResponseDTO>> loader) {
+        String key = name.toLowerCase(Locale.ROOT);
+        if (!ClientNameMatcher.isMatchableInMemory(key)) {
+            bypassed.increment();
+            return loads.execute(key, () -> loader.apply(name));
+        }
+
+        List<ClientResponseDTO> cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+        List<ClientResponseDTO> fromPrefix = searchCachedPrefixes(key);
+        if (fromPrefix != null) {
+            prefixHits.increment();
+            put(key, fromPrefix, startGeneration);
+            return fromPrefix;
+        }
+
+        misses.increment();
+        return load(key, name, loader, startGeneration);
+    }
+
+    /**
+     * Evicts every entry that lists the given client or whose query matches its names.
+     * When called inside a transaction the eviction runs after commit, so a concurrent
+     * search can't repopulate the cache with the pre-commit state.
+     */
+    public void invalidate(Long id, String firstName, String lastName) {
+        AfterCommit.run(() -> evict(id, firstName, lastName));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        loads.forgetAll();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double hitRatio() {
+        double served = hits.count() + prefixHits.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private List<ClientResponseDTO> searchCachedPrefixes(String key) {
+        for (int length = key.length() - 1; length >= 0; length--) {
+            List<ClientResponseDTO> prefixResult = get(key.substring(0, length));
+            if (prefixResult != null) {
+                return prefixResult.stream()
+                        .filter(c -> ClientNameMatcher.matches(c.getFirstName(), c.getLastName(), key))
+                        .toList();
+            }
+        }
+        return null;
+    }
+
+    private List<ClientResponseDTO> load(String key, String name,
+                                         Function<String, List<ClientResponseDTO>> loader,
+                                         long startGeneration) {
+        return loads.execute(key, () -> {
+            List<ClientResponseDTO> result = loader.apply(name);
+            put(key, result, startGeneration);
+            return result;
+        });
+    }
+
+    private List<ClientResponseDTO> get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(String key, List<ClientResponseDTO> result, long startGeneration) {
+        if (result.size() > maxResultSize) {
+            return;
+        }
+        synchronized (entries) {
+            // A write committed while this result was being computed; it may be stale.
+            if (generation.get() == startGeneration) {
+                entries.put(key, result);
+            }
+        }
+    }
+
+    private void evict(Long id, String firstName, String lastName) {
+        generation.incrementAndGet();
+        // Later searches start a new load instead of joining one that predates the write.
+        loads.forgetAll();
+        int evicted;
+        synchronized (entries) {
+            int before = entries.size();
+            entries.entrySet().removeIf(e -> ClientNameMatcher.matches(firstName, lastName, e.getKey())
+                    || e.getValue().stream().anyMatch(c -> Objects.equals(c.getId(), id)));
+            evicted = before - entries.size();
+        }
+        log.debug("Evicted {} search cache entries for client id={}", evicted, id);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("clients.search.cache.requests")
+                .description("Name search requests by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.challenge.clients.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed block of native memory, allocated once and split into {@value #CHUNK_SIZE}-byte
+ * chunks handed out from a free list. An entry takes as many chunks as it needs, in any
+ * order, so freed space is always reusable and native memory never grows past the
+ * capacity. Not thread-safe; each {@link ClientJsonCache} stripe guards its own arena.
+ */
+final class OffHeapArena {
+
+    static final int CHUNK_SIZE = 64;
+
+    private final ByteBuffer memory;
+    private final int[] freeChunks;
+    private int freeCount;
+
+    OffHeapArena(long capacityBytes) {
+        long chunks = capacityBytes / CHUNK_SIZE;
+        if (chunks * CHUNK_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap arena is limited to 2 GiB, got " + capacityBytes + " bytes");
+        }
+        this.memory = ByteBuffer.allocateDirect((int) chunks * CHUNK_SIZE);
+        this.freeChunks = new int[(int) chunks];
+        for (int i = 0; i < freeChunks.length; i++) {
+            freeChunks[i] = freeChunks.length - 1 - i;
+        }
+        this.freeCount = freeChunks.length;
+    }
+
+    static int chunksFor(int length) {
+        return (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    int capacityChunks() {
+        return freeChunks.length;
+    }
+
+    int freeChunks() {
+        return freeCount;
+    }
+
+    /**
+     * Copies {@code data} into free chunks, or returns {@code null} if there are not enough.
+     */
+    int[] store(byte[] data) {
+        int[] chunks = new int[chunksFor(data.length)];
+        if (chunks.length > freeCount) {
+            return null;
+        }
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = freeChunks[--freeCount];
+            int from = i * CHUNK_SIZE;
+            memory.put(chunks[i] * CHUNK_SIZE, data, from, Math.min(CHUNK_SIZE, data.length - from));
+        }
+        return chunks;
+    }
+
+    void read(int[] chunks, int length, byte[] target, int offset) {
+        for (int i = 0; i < chunks.length; i++) {
+            int from = i * CHUNK_SIZE;
+            memory.get(chunks[i] * CHUNK_SIZE, target, offset + from, Math.min(CHUNK_SIZE, length - from));
+        }
+    }
+
+    void free(int[] chunks) {
+        for (int chunk : chunks) {
+            freeChunks[freeCount++] = chunk;
+        }
+    }
+}
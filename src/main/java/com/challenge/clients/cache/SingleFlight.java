@@ -0,0 +1,112 @@
+package com.challenge.clients.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one execution.
+ * <p>
+ * The first caller runs the call on its own thread; callers arriving while it is in
+ * flight wait up to {@code maxWait} for its result or exception. A caller that times
+ * out runs the call itself rather than failing.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry, Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.leaders = calls(meterRegistry, name, "leader");
+        this.coalesced = calls(meterRegistry, name, "coalesced");
+        this.timeouts = calls(meterRegistry, name, "timeout");
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            leaders.increment();
+            return lead(key, mine, call);
+        }
+
+        try {
+            V result = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return result;
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            throw propagate(e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight call", e);
+        }
+    }
+
+    /**
+     * Detaches the in-flight call for {@code key}, so later callers start a new one
+     * instead of joining a call that may predate a write.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    public double coalescedCount() {
+        return coalesced.count();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> mine, Supplier<V> call) {
+        try {
+            V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("clients.single.flight.calls")
+                .description("Calls through a single-flight group by outcome")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.challenge.clients.controller;
+
+import com.challenge.clients.birthdays.BirthdayExports;
+import com.challenge.clients.dto.BirthdayExportDTO;
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
+import com.challenge.clients.service.ClientService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/clients/birthdays")
+@RequiredArgsConstructor
+@Tag(name = "Birthdays", description = "Upcoming client birthdays")
+public class BirthdayController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ClientService clientService;
+    private final BirthdayExports birthdayExports;
+
+    @GetMapping
+    @Operation(summary = "Clients with a birthday in the next N days, in upcoming order")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One page of clients and the cursor of the next one"),
+            @ApiResponse(responseCode = "400", description = "Invalid days, size or cursor")
+    })
+    public ResponseEntity<ClientBirthdayPageDTO> upcoming(@RequestParam(defaultValue = "7") int days,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(clientService.findUpcomingBirthdays(days, cursor, size));
+    }
+
+    @PostMapping("/exports")
+    @Operation(summary = "Start a background NDJSON export of upcoming birthdays")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Export accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid days")
+    })
+    public ResponseEntity<BirthdayExportDTO> startExport(@RequestParam(defaultValue = "7") int days) {
+        BirthdayExportDTO export = birthdayExports.submit(days);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/clients/birthdays/exports/" + export.getId()))
+                .body(export);
+    }
+
+    @GetMapping("/exports/{id}")
+    @Operation(summary = "Get the status of a birthday export")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export status"),
+            @ApiResponse(responseCode = "404", description = "Export not found or expired")
+    })
+    public ResponseEntity<BirthdayExportDTO> exportStatus(@PathVariable String id) {
+        return ResponseEntity.ok(birthdayExports.status(id));
+    }
+
+    @GetMapping("/exports/{id}/result")
+    @Operation(summary = "Download a finished birthday export as NDJSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One client per line"),
+            @ApiResponse(responseCode = "404", description = "Export not found or expired"),
+            @ApiResponse(responseCode = "409", description = "Export still running or failed")
+    })
+    public ResponseEntity<Resource> exportResult(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(new FileSystemResource(birthdayExports.result(id)));
+    }
+}
@@ -1,20 +1,25 @@
 package com.challenge.clients.controller;
 
+import com.challenge.clients.cache.ClientJsonCache;
 import com.challenge.clients.dto.ClientRequestDTO;
 import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.dto.ClientStatsDTO;
 import com.challenge.clients.service.ClientService;
+import com.challenge.clients.stats.ClientStats;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/clients")
 @RequiredArgsConstructor
@@ -22,29 +27,49 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService clientService;
+    private final ClientJsonCache clientJsonCache;
+    private final ClientStats clientStats;
 
     @GetMapping
     @Operation(summary = "Get all clients")
-    @ApiResponse(responseCode = "200", description = "List of all clients")
-    public ResponseEntity<List<ClientResponseDTO>> getAll() {
-        return ResponseEntity.ok(clientService.findAll());
+    @ApiResponse(responseCode = "200", description = "List of all clients",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ClientResponseDTO.class))))
+    public ResponseEntity<byte[]> getAll() {
+        return json(clientJsonCache.encodeArray(clientService.findAll()));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a client by ID")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Client found"),
+            @ApiResponse(responseCode = "200", description = "Client found",
+                    content = @Content(schema = @Schema(implementation = ClientResponseDTO.class))),
             @ApiResponse(responseCode = "404", description = "Client not found")
     })
-    public ResponseEntity<ClientResponseDTO> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(clientService.findById(id));
+    public ResponseEntity<byte[]> getById(@PathVariable Long id) {
+        // When the version is known up front a cache hit skips building the DTO entirely.
+        byte[] cached = clientService.findVersion(id)
+                .map(version -> clientJsonCache.cached(id, version))
+                .orElse(null);
+        return json(cached != null ? cached : clientJsonCache.encode(clientService.findById(id)));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search clients by name (partial, case-insensitive)")
-    @ApiResponse(responseCode = "200", description = "Search results")
-    public ResponseEntity<List<ClientResponseDTO>> search(@RequestParam String name) {
-        return ResponseEntity.ok(clientService.searchByName(name));
+    @ApiResponse(responseCode = "200", description = "Search results",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ClientResponseDTO.class))))
+    public ResponseEntity<byte[]> search(@RequestParam String name) {
+        return json(clientJsonCache.encodeArray(clientService.searchByName(name)));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Client counts by company, birth decade, tax ID prefix and creation month")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Aggregated statistics",
+                    content = @Content(schema = @Schema(implementation = ClientStatsDTO.class))),
+            @ApiResponse(responseCode = "503", description = "Counters not yet reconciled with the table")
+    })
+    public ResponseEntity<byte[]> stats() {
+        return json(clientStats.encoded());
     }
 
     @PostMapping
@@ -79,6 +104,11 @@ public class ClientController {
     })
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         clientService.delete(id);
+        clientJsonCache.evict(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -0,0 +1,94 @@
+package com.challenge.clients.controller;
+
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ContactUpdateStatusDTO;
+import com.challenge.clients.service.ClientService;
+import com.challenge.clients.writebehind.ContactUpdateBuffer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Asynchronous variant of {@code PUT /api/clients/{id}}, selected by
+ * {@code Prefer: respond-async}. Requests that change more than the phone number and
+ * email are updated synchronously, as if the preference had not been sent.
+ * <p>
+ * {@code Prefer} is a list of preferences (RFC 7240), possibly split over several header
+ * lines, so every request carrying it lands here and is parsed; without
+ * {@code respond-async} among them the update is synchronous as well.
+ */
+@RestController
+@RequestMapping("/api/clients")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "clients.write-behind.enabled", havingValue = "true")
+@Tag(name = "Clients", description = "Client management endpoints")
+public class WriteBehindController {
+
+    static final String PREFER = "Prefer";
+    static final String PREFER_ASYNC = "respond-async";
+
+    private final ClientService clientService;
+    private final ContactUpdateBuffer contactUpdateBuffer;
+
+    @PutMapping(value = "/{id}", headers = PREFER)
+    @Operation(summary = "Update a client's phone number and email asynchronously")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Update buffered; poll the Location for its status"),
+            @ApiResponse(responseCode = "200", description = "Other fields changed; client updated synchronously"),
+            @ApiResponse(responseCode = "404", description = "Client not found"),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "409", description = "Duplicate tax ID or email")
+    })
+    public ResponseEntity<?> updateAsync(@PathVariable Long id, @Valid @RequestBody ClientRequestDTO request,
+                                         @RequestHeader HttpHeaders headers) {
+        if (!prefersAsync(headers.getOrEmpty(PREFER))) {
+            return ResponseEntity.ok(clientService.update(id, request));
+        }
+        Optional<Long> sequence = contactUpdateBuffer.accept(id, request);
+        if (sequence.isEmpty()) {
+            return ResponseEntity.ok(clientService.update(id, request));
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/clients/contact-updates/" + sequence.get()))
+                .header("Preference-Applied", PREFER_ASYNC)
+                .body(contactUpdateBuffer.status(sequence.get()));
+    }
+
+    /**
+     * Whether any preference is {@code respond-async}, e.g. in
+     * {@code Prefer: respond-async, wait=5}. Names are case-insensitive and may carry a
+     * value or parameters, which are ignored.
+     */
+    static boolean prefersAsync(List<String> values) {
+        for (String value : values) {
+            for (String preference : value.split(",")) {
+                String name = preference.split("[;=]", 2)[0].trim();
+                if (name.equalsIgnoreCase(PREFER_ASYNC)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @GetMapping("/contact-updates/{sequence}")
+    @Operation(summary = "Get the status of an asynchronous contact update")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "PENDING, FLUSHED or REJECTED"),
+            @ApiResponse(responseCode = "404", description = "Unknown sequence number")
+    })
+    public ResponseEntity<ContactUpdateStatusDTO> status(@PathVariable long sequence) {
+        return ResponseEntity.ok(contactUpdateBuffer.status(sequence));
+    }
+}
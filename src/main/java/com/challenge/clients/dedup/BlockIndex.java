@@ -0,0 +1,112 @@
+package com.challenge.clients.dedup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Groups clients that share a {@link BlockingKey}, keeping only a 64-bit hash of each key
+ * per client (8 bytes per client and key) instead of the key strings. A hash collision
+ * merely adds a pair to score.
+ * <p>
+ * Clients are identified by the order in which they were {@link #add added}.
+ */
+final class BlockIndex {
+
+    private static final BlockingKey[] KEYS = BlockingKey.values();
+    private static final long ABSENT = 0;
+
+    private long[][] hashes = new long[KEYS.length][1 << 16];
+    private int size;
+
+    /**
+     * @param blocks     index lists of every block with 2 to {@code maxBlockSize} clients
+     * @param oversized  blocks skipped for having more than {@code maxBlockSize} clients
+     * @param members    clients that belong to at least one block in {@code blocks}
+     */
+    record Blocks(List<int[]> blocks, int oversized, BitSet members) {
+
+        long pairs() {
+            long pairs = 0;
+            for (int[] block : blocks) {
+                pairs += (long) block.length * (block.length - 1) / 2;
+            }
+            return pairs;
+        }
+    }
+
+    void add(NormalizedClient client) {
+        if (size == hashes[0].length) {
+            for (int k = 0; k < KEYS.length; k++) {
+                hashes[k] = Arrays.copyOf(hashes[k], size * 2);
+            }
+        }
+        for (int k = 0; k < KEYS.length; k++) {
+            hashes[k][size] = hash(KEYS[k].of(client));
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Blocks build(int maxBlockSize) {
+        int indexBits = Math.max(1, 64 - Long.numberOfLeadingZeros(size));
+        long indexMask = (1L << indexBits) - 1;
+
+        List<int[]> blocks = new ArrayList<>();
+        BitSet members = new BitSet(size);
+        int oversized = 0;
+        for (int k = 0; k < KEYS.length; k++) {
+            // Hash in the high bits and client index in the low bits: after sorting, each
+            // block is a run of equal high bits.
+            long[] packed = new long[size];
+            int present = 0;
+            for (int i = 0; i < size; i++) {
+                long hash = hashes[k][i];
+                if (hash != ABSENT) {
+                    packed[present++] = (hash & ~indexMask) | i;
+                }
+            }
+            Arrays.parallelSort(packed, 0, present);
+
+            for (int start = 0, end; start < present; start = end) {
+                long block = packed[start] & ~indexMask;
+                end = start + 1;
+                while (end < present && (packed[end] & ~indexMask) == block) {
+                    end++;
+                }
+                int length = end - start;
+                if (length > maxBlockSize) {
+                    oversized++;
+                } else if (length > 1) {
+                    int[] indices = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        indices[i] = (int) (packed[start + i] & indexMask);
+                        members.set(indices[i]);
+                    }
+                    blocks.add(indices);
+                }
+            }
+        }
+        hashes = null;
+        return new Blocks(blocks, oversized, members);
+    }
+
+    /**
+     * 64-bit FNV-1a, with {@code 0} reserved for a missing key.
+     */
+    static long hash(String key) {
+        if (key == null) {
+            return ABSENT;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == ABSENT ? 1 : hash;
+    }
+}
@@ -0,0 +1,40 @@
+package com.challenge.clients.dedup;
+
+/**
+ * Ways of grouping clients into blocks so that only clients sharing a block are compared.
+ * A duplicate needs to agree with its original on just one of these keys to be found.
+ */
+enum BlockingKey {
+
+    SURNAME_BIRTH_DATE {
+        @Override
+        String of(NormalizedClient client) {
+            return client.lastName().isEmpty() || client.birthDate() == null ? null
+                    : SpanishPhonetic.encode(client.lastName()) + '|' + client.birthDate();
+        }
+    },
+    EMAIL {
+        @Override
+        String of(NormalizedClient client) {
+            return client.email().isEmpty() ? null : client.email();
+        }
+    },
+    PHONE {
+        @Override
+        String of(NormalizedClient client) {
+            return client.phoneNumber().length() < NormalizedClient.PHONE_DIGITS ? null : client.phoneNumber();
+        }
+    },
+    COMPANY_FIRST_NAME {
+        @Override
+        String of(NormalizedClient client) {
+            return client.companyName().isEmpty() || client.firstName().isEmpty() ? null
+                    : client.companyName() + '|' + SpanishPhonetic.encode(client.firstName());
+        }
+    };
+
+    /**
+     * The key of {@code client}, or {@code null} when the fields it needs are missing.
+     */
+    abstract String of(NormalizedClient client);
+}
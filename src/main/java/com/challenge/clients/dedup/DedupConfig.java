@@ -0,0 +1,32 @@
+package com.challenge.clients.dedup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+public class DedupConfig {
+
+    /**
+     * Offline duplicate detection: start with the {@code dedup} profile. The application
+     * exits when the run completes; candidates are in {@code client_duplicate_candidates}.
+     * Not supported with sharding: the job reads {@code clientes} from the primary
+     * database, which then only holds the directory.
+     */
+    @Bean
+    @Profile("dedup")
+    public ApplicationRunner dedupRunner(DedupJob job, ApplicationContext context,
+                                         @Value("${clients.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("The dedup profile is not supported with clients.sharding.enabled");
+        }
+        return args -> {
+            job.run();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
@@ -0,0 +1,260 @@
+package com.challenge.clients.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Batch job that finds likely duplicate clients and writes them, grouped in clusters, to
+ * {@code client_duplicate_candidates} for manual review. Nothing in {@code clientes} is
+ * changed.
+ * <p>
+ * Only clients sharing a {@link BlockingKey} are compared, so the work grows with the
+ * size of the blocks rather than with the square of the table. The table is streamed
+ * twice in id order: the first pass keeps only key hashes, the second keeps the
+ * normalized fields of clients that landed in some block. Normalization and scoring run
+ * on {@code clients.dedup.parallelism} fork-join threads (all cores by default): the JDBC
+ * callback only copies each row into a chunk, and full chunks are normalized on the pool
+ * while the next one is read.
+ */
+@Component
+public class DedupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DedupJob.class);
+
+    static final String SELECT_SQL = "SELECT id, nombre, apellido, razon_social, fecha_nacimiento, "
+            + "telefono_celular, email FROM clientes ORDER BY id";
+    static final String INSERT_SQL = "INSERT INTO client_duplicate_candidates "
+            + "(run_id, cluster_id, client_id, score) VALUES (?, ?, ?, ?)";
+    static final String RUN_ID_SQL = "SELECT nextval('client_duplicate_runs_seq')";
+
+    private final JdbcTemplate streamingTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double threshold;
+    private final int maxBlockSize;
+    private final int parallelism;
+    private final int batchSize;
+
+    public DedupJob(JdbcTemplate jdbcTemplate,
+                    PlatformTransactionManager transactionManager,
+                    @Value("${clients.dedup.threshold:0.85}") double threshold,
+                    @Value("${clients.dedup.max-block-size:1000}") int maxBlockSize,
+                    @Value("${clients.dedup.parallelism:0}") int parallelism,
+                    @Value("${clients.dedup.fetch-size:10000}") int fetchSize,
+                    @Value("${clients.dedup.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Summary of one run; {@code runId} identifies its rows in the review table and
+     * {@code pairVisits} counts a pair once per block it shares.
+     */
+    public record DedupReport(long runId, long clients, int blocks, int oversizedBlocks, long pairVisits,
+                              int clusters, int candidates, long elapsedMs) {
+    }
+
+    public DedupReport run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return run(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private DedupReport run(ForkJoinPool pool) {
+        long started = System.currentTimeMillis();
+
+        BlockIndex index = new BlockIndex();
+        long[][] ids = {new long[1 << 16]};
+        int[] rows = {0};
+        stream(pool, id -> {
+            if (rows[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], rows[0] * 2);
+            }
+            ids[0][rows[0]] = id;
+            return rows[0]++;
+        }, (slot, client) -> index.add(client));
+        int clients = index.size();
+        BlockIndex.Blocks blocks = index.build(maxBlockSize);
+        log.info("Dedup: {} clients, {} blocks ({} pairs), {} blocks over {} clients skipped",
+                clients, blocks.blocks().size(), blocks.pairs(), blocks.oversized(), maxBlockSize);
+
+        NormalizedClient[] records = new NormalizedClient[clients];
+        BitSet members = blocks.members();
+        stream(pool, id -> {
+            int i = Arrays.binarySearch(ids[0], 0, clients, id);
+            return i >= 0 && members.get(i) ? i : -1;
+        }, (slot, client) -> records[slot] = client);
+
+        DuplicateClusters.Result result = DuplicateClusters.find(records, blocks.blocks(), threshold, pool);
+
+        long runId = jdbcTemplate.queryForObject(RUN_ID_SQL, Long.class);
+        int candidates = write(runId, result.clusters());
+        DedupReport report = new DedupReport(runId, clients, blocks.blocks().size(), blocks.oversized(),
+                result.pairVisits(), result.clusters().size(), candidates, System.currentTimeMillis() - started);
+        log.info("Dedup run {}: {} clusters with {} clients after {} pair visits in {} ms",
+                runId, report.clusters(), candidates, report.pairVisits(), report.elapsedMs());
+        return report;
+    }
+
+    /**
+     * Reads the table in id order and hands each row picked by {@code slots} to
+     * {@code sink}, normalized, in the same order and on the calling thread.
+     * <p>
+     * PostgreSQL only honours the fetch size inside a transaction; without one the whole
+     * table would be loaded at once.
+     */
+    private void stream(ForkJoinPool pool, Slots slots, Sink sink) {
+        ChunkedNormalizer normalizer = new ChunkedNormalizer(pool, slots, sink);
+        transactionTemplate.executeWithoutResult(status -> streamingTemplate.query(SELECT_SQL, normalizer));
+        normalizer.finish();
+    }
+
+    private int write(long runId, List<DuplicateClusters.Cluster> clusters) {
+        List<Object[]> rows = new ArrayList<>();
+        for (DuplicateClusters.Cluster cluster : clusters) {
+            for (DuplicateClusters.Member member : cluster.members()) {
+                rows.add(new Object[]{runId, cluster.clusterId(), member.clientId(), member.score()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+        });
+        return rows.size();
+    }
+
+    /**
+     * Position of the row with {@code id} in the result, or {@code -1} to skip it.
+     */
+    @FunctionalInterface
+    private interface Slots {
+        int of(long id);
+    }
+
+    @FunctionalInterface
+    private interface Sink {
+        void accept(int slot, NormalizedClient client);
+    }
+
+    /**
+     * Copies rows into fixed-size chunks and normalizes each full chunk on the pool. At
+     * most two chunks per thread are in flight, which bounds the raw rows held in memory;
+     * finished chunks are drained oldest first so the sink sees rows in table order.
+     */
+    private static final class ChunkedNormalizer implements RowCallbackHandler {
+
+        private static final int CHUNK_SIZE = 4096;
+
+        private final ForkJoinPool pool;
+        private final Slots slots;
+        private final Sink sink;
+        private final ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        private Chunk chunk = new Chunk();
+
+        ChunkedNormalizer(ForkJoinPool pool, Slots slots, Sink sink) {
+            this.pool = pool;
+            this.slots = slots;
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            int slot = slots.of(id);
+            if (slot < 0) {
+                return;
+            }
+            chunk.add(slot, id, rs);
+            if (chunk.size == CHUNK_SIZE) {
+                submit();
+            }
+        }
+
+        void finish() {
+            if (chunk.size > 0) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                drainOldest();
+            }
+        }
+
+        private void submit() {
+            Chunk full = chunk;
+            chunk = new Chunk();
+            inFlight.add(pool.submit(full::normalize));
+            while (inFlight.size() > 2 * pool.getParallelism()) {
+                drainOldest();
+            }
+        }
+
+        private void drainOldest() {
+            Chunk done = inFlight.poll().join();
+            for (int i = 0; i < done.size; i++) {
+                sink.accept(done.slots[i], done.normalized[i]);
+            }
+        }
+    }
+
+    private static final class Chunk {
+
+        private final int[] slots = new int[ChunkedNormalizer.CHUNK_SIZE];
+        private final long[] ids = new long[ChunkedNormalizer.CHUNK_SIZE];
+        private final String[] firstNames = new String[ChunkedNormalizer.CHUNK_SIZE];
+        private final String[] lastNames = new String[ChunkedNormalizer.CHUNK_SIZE];
+        private final String[] companyNames = new String[ChunkedNormalizer.CHUNK_SIZE];
+        private final LocalDate[] birthDates = new LocalDate[ChunkedNormalizer.CHUNK_SIZE];
+        private final String[] phoneNumbers = new String[ChunkedNormalizer.CHUNK_SIZE];
+        private final String[] emails = new String[ChunkedNormalizer.CHUNK_SIZE];
+        private NormalizedClient[] normalized;
+        private int size;
+
+        void add(int slot, long id, ResultSet rs) throws SQLException {
+            slots[size] = slot;
+            ids[size] = id;
+            firstNames[size] = rs.getString("nombre");
+            lastNames[size] = rs.getString("apellido");
+            companyNames[size] = rs.getString("razon_social");
+            birthDates[size] = rs.getObject("fecha_nacimiento", LocalDate.class);
+            phoneNumbers[size] = rs.getString("telefono_celular");
+            emails[size] = rs.getString("email");
+            size++;
+        }
+
+        Chunk normalize() {
+            normalized = new NormalizedClient[size];
+            for (int i = 0; i < size; i++) {
+                normalized[i] = NormalizedClient.of(ids[i], firstNames[i], lastNames[i], companyNames[i],
+                        birthDates[i], phoneNumbers[i], emails[i]);
+            }
+            return this;
+        }
+    }
+}
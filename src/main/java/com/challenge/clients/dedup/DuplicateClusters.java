@@ -0,0 +1,189 @@
+package com.challenge.clients.dedup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores every pair within each block on a {@link ForkJoinPool} and joins the pairs that
+ * reach the threshold into clusters (union-find), so {@code A~B} and {@code B~C} put
+ * {@code A}, {@code B} and {@code C} in one cluster even if {@code A} and {@code C} were
+ * never compared.
+ */
+final class DuplicateClusters {
+
+    /**
+     * Pairs scored by one task before it stops splitting; small enough to balance the
+     * load, large enough to keep task overhead negligible.
+     */
+    static final long PAIRS_PER_TASK = 50_000;
+
+    /**
+     * @param score best score of this client against another member of its cluster
+     */
+    record Member(long clientId, double score) {
+    }
+
+    /**
+     * @param clusterId the lowest client id in the cluster
+     */
+    record Cluster(long clusterId, List<Member> members) {
+    }
+
+    /**
+     * @param pairVisits pairs scored, counted once per block: a pair that shares several
+     *                   blocking keys is scored, and counted, once for each of them
+     */
+    record Result(List<Cluster> clusters, long pairVisits) {
+    }
+
+    private record Match(int a, int b, double score) {
+    }
+
+    private DuplicateClusters() {
+    }
+
+    /**
+     * @param records clients by index; {@code null} entries (rows deleted while the job
+     *                ran) are skipped
+     */
+    static Result find(NormalizedClient[] records, List<int[]> blocks, double threshold, ForkJoinPool pool) {
+        long[] pairsBefore = new long[blocks.size() + 1];
+        for (int i = 0; i < blocks.size(); i++) {
+            int length = blocks.get(i).length;
+            pairsBefore[i + 1] = pairsBefore[i] + (long) length * (length - 1) / 2;
+        }
+        List<Match> matches = pool.invoke(new ScoreTask(records, blocks, pairsBefore, threshold, 0, blocks.size()));
+        return new Result(cluster(records, matches), pairsBefore[blocks.size()]);
+    }
+
+    private static List<Cluster> cluster(NormalizedClient[] records, List<Match> matches) {
+        UnionFind sets = new UnionFind(records.length);
+        Map<Integer, Double> best = new HashMap<>();
+        for (Match match : matches) {
+            sets.union(match.a(), match.b());
+            best.merge(match.a(), match.score(), Math::max);
+            best.merge(match.b(), match.score(), Math::max);
+        }
+
+        Map<Integer, List<Member>> byRoot = new HashMap<>();
+        for (Map.Entry<Integer, Double> entry : best.entrySet()) {
+            byRoot.computeIfAbsent(sets.find(entry.getKey()), root -> new ArrayList<>())
+                    .add(new Member(records[entry.getKey()].id(), entry.getValue()));
+        }
+        List<Cluster> clusters = new ArrayList<>(byRoot.size());
+        for (List<Member> members : byRoot.values()) {
+            members.sort(Comparator.comparingLong(Member::clientId));
+            clusters.add(new Cluster(members.get(0).clientId(), List.copyOf(members)));
+        }
+        clusters.sort(Comparator.comparingLong(Cluster::clusterId));
+        return clusters;
+    }
+
+    private static final class ScoreTask extends RecursiveTask<List<Match>> {
+
+        private final NormalizedClient[] records;
+        private final List<int[]> blocks;
+        private final long[] pairsBefore;
+        private final double threshold;
+        private final int from;
+        private final int to;
+
+        ScoreTask(NormalizedClient[] records, List<int[]> blocks, long[] pairsBefore, double threshold,
+                  int from, int to) {
+            this.records = records;
+            this.blocks = blocks;
+            this.pairsBefore = pairsBefore;
+            this.threshold = threshold;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Match> compute() {
+            if (to - from <= 1 || pairsBefore[to] - pairsBefore[from] <= PAIRS_PER_TASK) {
+                return score();
+            }
+            // Split where half of the pairs fall on each side, not half of the blocks.
+            long half = (pairsBefore[from] + pairsBefore[to]) / 2;
+            int mid = from + 1;
+            while (mid < to - 1 && pairsBefore[mid] < half) {
+                mid++;
+            }
+            ScoreTask left = new ScoreTask(records, blocks, pairsBefore, threshold, from, mid);
+            left.fork();
+            List<Match> right = new ScoreTask(records, blocks, pairsBefore, threshold, mid, to).compute();
+            List<Match> matches = left.join();
+            matches.addAll(right);
+            return matches;
+        }
+
+        private List<Match> score() {
+            List<Match> matches = new ArrayList<>();
+            for (int b = from; b < to; b++) {
+                int[] block = blocks.get(b);
+                for (int i = 0; i < block.length; i++) {
+                    NormalizedClient a = records[block[i]];
+                    if (a == null) {
+                        continue;
+                    }
+                    for (int j = i + 1; j < block.length; j++) {
+                        NormalizedClient other = records[block[j]];
+                        if (other != null) {
+                            double score = PairScorer.score(a, other);
+                            if (score >= threshold) {
+                                matches.add(new Match(block[i], block[j], score));
+                            }
+                        }
+                    }
+                }
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Disjoint sets over client indices, with path halving and union by size.
+     */
+    static final class UnionFind {
+
+        private final int[] parent;
+        private final int[] size;
+
+        UnionFind(int count) {
+            parent = new int[count];
+            size = new int[count];
+            for (int i = 0; i < count; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        int find(int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+
+        void union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            if (size[rootA] < size[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootB] = rootA;
+            size[rootA] += size[rootB];
+        }
+    }
+}
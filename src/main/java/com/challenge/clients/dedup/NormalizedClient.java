@@ -0,0 +1,112 @@
+package com.challenge.clients.dedup;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The fields of a client that duplicate detection compares, normalized so that casing,
+ * accents, punctuation and formatting differences do not count as differences.
+ */
+record NormalizedClient(long id,
+                        String firstName,
+                        String lastName,
+                        String companyName,
+                        LocalDate birthDate,
+                        String phoneNumber,
+                        String email) {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D+");
+
+    /**
+     * Legal entity suffixes dropped from {@code razon_social}, after punctuation is removed
+     * ({@code S.R.L.} becomes {@code s r l}, then {@code srl}).
+     */
+    private static final Set<String> COMPANY_SUFFIXES = Set.of("srl", "sa", "sas", "sh", "sau", "scs", "sca");
+
+    /**
+     * Phone numbers are compared by their last digits, which ignores country and area
+     * prefixes ({@code +54 9 11 6587-4210} and {@code 1165874210}).
+     */
+    static final int PHONE_DIGITS = 8;
+
+    static NormalizedClient of(long id, String firstName, String lastName, String companyName,
+                               LocalDate birthDate, String phoneNumber, String email) {
+        return new NormalizedClient(id, text(firstName), text(lastName), company(companyName), birthDate,
+                phone(phoneNumber), email(email));
+    }
+
+    /**
+     * Lower case, no accents, words separated by single spaces.
+     */
+    static String text(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static String company(String value) {
+        String[] words = text(value).split(" ");
+        StringBuilder name = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        for (String word : words) {
+            // Runs of single letters are dotted abbreviations such as "S.R.L.".
+            if (word.length() == 1) {
+                initials.append(word);
+                continue;
+            }
+            flush(name, initials);
+            if (!COMPANY_SUFFIXES.contains(word)) {
+                append(name, word);
+            }
+        }
+        flush(name, initials);
+        return name.toString();
+    }
+
+    /**
+     * Lower case, without a {@code +tag} in the local part.
+     */
+    static String email(String value) {
+        if (value == null) {
+            return "";
+        }
+        String email = value.trim().toLowerCase(Locale.ROOT);
+        int at = email.indexOf('@');
+        int plus = email.indexOf('+');
+        if (plus > 0 && plus < at) {
+            email = email.substring(0, plus) + email.substring(at);
+        }
+        return email;
+    }
+
+    static String phone(String value) {
+        if (value == null) {
+            return "";
+        }
+        String digits = NON_DIGIT.matcher(value).replaceAll("");
+        return digits.length() > PHONE_DIGITS ? digits.substring(digits.length() - PHONE_DIGITS) : digits;
+    }
+
+    private static void flush(StringBuilder name, StringBuilder initials) {
+        if (!initials.isEmpty()) {
+            if (!COMPANY_SUFFIXES.contains(initials.toString())) {
+                append(name, initials.toString());
+            }
+            initials.setLength(0);
+        }
+    }
+
+    private static void append(StringBuilder name, String word) {
+        if (!name.isEmpty()) {
+            name.append(' ');
+        }
+        name.append(word);
+    }
+}
@@ -0,0 +1,40 @@
+package com.challenge.clients.dedup;
+
+import java.util.Objects;
+
+/**
+ * Weighted similarity of two clients, between {@code 0} and {@code 1}. Names weigh the
+ * most; email and phone count fully only when they match after normalization, with
+ * partial credit for similar email local parts.
+ */
+final class PairScorer {
+
+    static final double NAME_WEIGHT = 0.45;
+    static final double BIRTH_DATE_WEIGHT = 0.20;
+    static final double EMAIL_WEIGHT = 0.15;
+    static final double PHONE_WEIGHT = 0.10;
+    static final double COMPANY_WEIGHT = 0.10;
+
+    private PairScorer() {
+    }
+
+    static double score(NormalizedClient a, NormalizedClient b) {
+        double name = 0.4 * StringSimilarity.jaroWinkler(a.firstName(), b.firstName())
+                + 0.6 * StringSimilarity.jaroWinkler(a.lastName(), b.lastName());
+        double birthDate = a.birthDate() != null && a.birthDate().equals(b.birthDate()) ? 1 : 0;
+        double email = a.email().equals(b.email()) && !a.email().isEmpty() ? 1
+                : StringSimilarity.jaroWinkler(localPart(a.email()), localPart(b.email()));
+        double phone = !a.phoneNumber().isEmpty() && Objects.equals(a.phoneNumber(), b.phoneNumber()) ? 1 : 0;
+        double company = StringSimilarity.jaroWinkler(a.companyName(), b.companyName());
+        return NAME_WEIGHT * name
+                + BIRTH_DATE_WEIGHT * birthDate
+                + EMAIL_WEIGHT * email
+                + PHONE_WEIGHT * phone
+                + COMPANY_WEIGHT * company;
+    }
+
+    private static String localPart(String email) {
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+}
@@ -0,0 +1,53 @@
+package com.challenge.clients.dedup;
+
+/**
+ * Phonetic code for Spanish surnames, so spelling variants that sound alike share a
+ * blocking key: {@code Velazquez}, {@code Belasques} and {@code Velásquez} all encode to
+ * {@code BLSKS}. Letters that Rioplatense Spanish pronounces the same are merged
+ * ({@code b/v}, {@code c/s/z}, {@code c/k/q}, {@code g/j}, {@code ll/y}), {@code h} and
+ * vowels after the first letter are dropped and repeated codes collapse. Expects input
+ * already passed through {@link NormalizedClient#text(String)}.
+ */
+final class SpanishPhonetic {
+
+    private SpanishPhonetic() {
+    }
+
+    static String encode(String word) {
+        StringBuilder code = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            char next = i + 1 < word.length() ? word.charAt(i + 1) : 0;
+            String sound = switch (c) {
+                case 'a', 'e', 'i', 'o', 'u' -> code.isEmpty() ? "A" : "";
+                case 'b', 'v', 'w' -> "B";
+                case 'c' -> next == 'e' || next == 'i' ? "S" : next == 'h' ? "X" : "K";
+                case 'k', 'q' -> "K";
+                case 's', 'z' -> "S";
+                case 'g' -> next == 'e' || next == 'i' ? "J" : "G";
+                case 'j' -> "J";
+                case 'x' -> "KS";
+                case 'y' -> "Y";
+                case 'l' -> {
+                    if (next == 'l') {
+                        i++;
+                        yield "Y";
+                    }
+                    yield "L";
+                }
+                case 'h', ' ' -> "";
+                default -> Character.isLetterOrDigit(c) ? String.valueOf(Character.toUpperCase(c)) : "";
+            };
+            if (c == 'c' && next == 'h') {
+                i++;
+            }
+            for (int j = 0; j < sound.length(); j++) {
+                char s = sound.charAt(j);
+                if (code.isEmpty() || code.charAt(code.length() - 1) != s) {
+                    code.append(s);
+                }
+            }
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.challenge.clients.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BirthdayExportDTO {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    private String id;
+    private Status status;
+    private int days;
+    private long rows;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.challenge.clients.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientBirthdayPageDTO {
+
+    private List<ClientResponseDTO> clients;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.challenge.clients.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientStatsDTO {
+
+    private long total;
+    private Map<String, Long> byCompany;
+    private Map<String, Long> byBirthDecade;
+    private Map<String, Long> byTaxIdPrefix;
+    private Map<String, Long> byCreationMonth;
+    private LocalDateTime reconciledAt;
+}
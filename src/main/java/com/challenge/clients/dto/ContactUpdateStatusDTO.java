@@ -0,0 +1,17 @@
+package com.challenge.clients.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContactUpdateStatusDTO {
+
+    public enum Status { PENDING, FLUSHED, REJECTED }
+
+    private long sequence;
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.challenge.clients.exception;
+
+/**
+ * Base class for expected business outcomes (not found, duplicates) that are mapped to
+ * HTTP responses. They are raised on hot paths and never need a stack trace, so it is
+ * not captured, and subclasses build their message lazily.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException() {
+        super(null, null, false, false);
+    }
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
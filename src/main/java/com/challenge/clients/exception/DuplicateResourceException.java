@@ -1,8 +1,32 @@
 package com.challenge.clients.exception;
 
-public class DuplicateResourceException extends RuntimeException {
+public class DuplicateResourceException extends DomainException {
+
+    private final String field;
+    private final String value;
 
     public DuplicateResourceException(String message) {
         super(message);
+        this.field = null;
+        this.value = null;
+    }
+
+    private DuplicateResourceException(String field, String value) {
+        this.field = field;
+        this.value = value;
+    }
+
+    public static DuplicateResourceException taxId(String taxId) {
+        return new DuplicateResourceException("tax ID", taxId);
+    }
+
+    public static DuplicateResourceException email(String email) {
+        return new DuplicateResourceException("email", email);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : "A client with " + field + " " + value + " already exists";
     }
 }
@@ -0,0 +1,60 @@
+package com.challenge.clients.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limited WARN logging for expected errors such as 404s and 409s. The first
+ * occurrence of each category per interval is logged in full; the rest are only
+ * counted and reported as a single summary line when the next interval starts.
+ */
+@Component
+public class ExpectedErrorLog {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final long intervalNanos;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public ExpectedErrorLog(@Value("${clients.errors.log-interval-ms:10000}") long intervalMs) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    public void record(String category, Exception ex) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        Window window = windows.computeIfAbsent(category, c -> new Window(System.nanoTime() - intervalNanos));
+        long now = System.nanoTime();
+        long started = window.start.get();
+        if (now - started < intervalNanos || !window.start.compareAndSet(started, now)) {
+            window.suppressed.increment();
+            return;
+        }
+
+        long suppressed = window.suppressed.sumThenReset();
+        if (suppressed > 0) {
+            log.warn("{}: {} similar errors suppressed in the last {} s", category, suppressed,
+                    TimeUnit.NANOSECONDS.toSeconds(now - started));
+        }
+        log.warn("{}: {}", category, ex.getMessage());
+    }
+
+    private static final class Window {
+
+        private final AtomicLong start;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(long start) {
+            this.start = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.challenge.clients.exception;
+
+public class ExportNotReadyException extends DomainException {
+
+    public ExportNotReadyException(String message) {
+        super(message);
+    }
+}
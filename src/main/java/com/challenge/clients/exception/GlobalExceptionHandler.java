@@ -1,61 +1,85 @@
 package com.challenge.clients.exception;
 
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final ProblemTemplate BAD_REQUEST = ProblemTemplate.of(HttpStatus.BAD_REQUEST);
+    private static final ProblemTemplate NOT_FOUND = ProblemTemplate.of(HttpStatus.NOT_FOUND);
+    private static final ProblemTemplate CONFLICT = ProblemTemplate.of(HttpStatus.CONFLICT);
+    private static final ProblemTemplate SERVICE_UNAVAILABLE = ProblemTemplate.of(HttpStatus.SERVICE_UNAVAILABLE);
+    private static final ProblemTemplate INTERNAL_SERVER_ERROR = ProblemTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private static final ResponseEntity<byte[]> CONSTRAINT_VIOLATION =
+            CONFLICT.render("A client with the same tax ID or email already exists");
+    private static final ResponseEntity<byte[]> UNEXPECTED_ERROR =
+            INTERNAL_SERVER_ERROR.render("An unexpected error occurred");
+
+    private final ExpectedErrorLog expectedErrorLog;
+
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(ResourceNotFoundException ex) {
-        log.warn("Resource not found: {}", ex.getMessage());
-        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    public ResponseEntity<byte[]> handleNotFound(ResourceNotFoundException ex) {
+        expectedErrorLog.record("Resource not found", ex);
+        return NOT_FOUND.render(ex.getMessage());
     }
 
     @ExceptionHandler(DuplicateResourceException.class)
-    public ResponseEntity<Map<String, Object>> handleDuplicate(DuplicateResourceException ex) {
-        log.warn("Duplicate resource: {}", ex.getMessage());
-        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    public ResponseEntity<byte[]> handleDuplicate(DuplicateResourceException ex) {
+        expectedErrorLog.record("Duplicate resource", ex);
+        return CONFLICT.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(ExportNotReadyException.class)
+    public ResponseEntity<byte[]> handleExportNotReady(ExportNotReadyException ex) {
+        expectedErrorLog.record("Export not ready", ex);
+        return CONFLICT.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(StatsNotReadyException.class)
+    public ResponseEntity<byte[]> handleStatsNotReady(StatsNotReadyException ex) {
+        expectedErrorLog.record("Stats not ready", ex);
+        return SERVICE_UNAVAILABLE.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<byte[]> handleInvalidRequest(InvalidRequestException ex) {
+        expectedErrorLog.record("Invalid request", ex);
+        return BAD_REQUEST.render(ex.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<byte[]> handleConstraintViolation(DataIntegrityViolationException ex) {
+        log.warn("Constraint violation: {}", ex.getMostSpecificCause().getMessage());
+        return CONSTRAINT_VIOLATION;
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
-        log.warn("Validation failed: {}", ex.getMessage());
-        Map<String, String> fieldErrors = new HashMap<>();
+    public ResponseEntity<byte[]> handleValidation(MethodArgumentNotValidException ex) {
+        expectedErrorLog.record("Validation failed", ex);
+        Map<String, String> fieldErrors = new LinkedHashMap<>();
         ex.getBindingResult().getFieldErrors()
-                .forEach(error -> fieldErrors.put(error.getField(), error.getDefaultMessage()));
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now().toString());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("error", "Validation failed");
-        body.put("fieldErrors", fieldErrors);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+                .forEach(error -> fieldErrors.putIfAbsent(error.getField(), error.getDefaultMessage()));
+        return BAD_REQUEST.render("Validation failed", fieldErrors);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
+    public ResponseEntity<byte[]> handleGeneric(Exception ex) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
-        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
-    }
-
-    private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String message) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now().toString());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
-        return ResponseEntity.status(status).body(body);
+        return UNEXPECTED_ERROR;
     }
 }
@@ -0,0 +1,8 @@
+package com.challenge.clients.exception;
+
+public class InvalidRequestException extends DomainException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,123 @@
+package com.challenge.clients.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Pre-encoded RFC 7807 {@code application/problem+json} body for one status. Only the
+ * {@code detail} member (and {@code fieldErrors}, for validation errors) varies per
+ * response; everything else is encoded once.
+ * <p>
+ * Handlers whose detail is a constant render it once and return the same response on every
+ * call. A detail taken from an exception message is encoded per response: it carries the
+ * request's own values (an id, a tax ID), so there is nothing to share between responses,
+ * and {@link DomainException} subclasses build that message only when it is read, which
+ * happens once here and once more only if {@link ExpectedErrorLog} samples the error.
+ */
+final class ProblemTemplate {
+
+    private static final HttpHeaders HEADERS = HttpHeaders.readOnlyHttpHeaders(problemHeaders());
+    private static final byte[] FIELD_ERRORS = ",\"fieldErrors\":{".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpStatus status;
+    private final byte[] prefix;
+
+    private ProblemTemplate(HttpStatus status) {
+        this.status = status;
+        this.prefix = ("{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase()
+                + "\",\"status\":" + status.value() + ",\"detail\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static ProblemTemplate of(HttpStatus status) {
+        return new ProblemTemplate(status);
+    }
+
+    ResponseEntity<byte[]> render(String detail) {
+        return render(detail, Map.of());
+    }
+
+    ResponseEntity<byte[]> render(String detail, Map<String, String> fieldErrors) {
+        return new ResponseEntity<>(encode(detail, fieldErrors), HEADERS, status);
+    }
+
+    private byte[] encode(String detail, Map<String, String> fieldErrors) {
+        int capacity = prefix.length + maxEncodedLength(detail) + FIELD_ERRORS.length + 2;
+        for (Map.Entry<String, String> error : fieldErrors.entrySet()) {
+            capacity += maxEncodedLength(error.getKey()) + maxEncodedLength(error.getValue()) + 2;
+        }
+        byte[] out = Arrays.copyOf(prefix, capacity);
+        int pos = writeString(detail, out, prefix.length);
+        if (!fieldErrors.isEmpty()) {
+            System.arraycopy(FIELD_ERRORS, 0, out, pos, FIELD_ERRORS.length);
+            pos += FIELD_ERRORS.length;
+            boolean first = true;
+            for (Map.Entry<String, String> error : fieldErrors.entrySet()) {
+                if (!first) {
+                    out[pos++] = ',';
+                }
+                first = false;
+                pos = writeString(error.getKey(), out, pos);
+                out[pos++] = ':';
+                pos = writeString(error.getValue(), out, pos);
+            }
+            out[pos++] = '}';
+        }
+        out[pos++] = '}';
+        return Arrays.copyOf(out, pos);
+    }
+
+    /**
+     * Quotes plus the worst case of six bytes per character (a control character escape).
+     */
+    private static int maxEncodedLength(String value) {
+        return value == null ? 4 : value.length() * 6 + 2;
+    }
+
+    private static int writeString(String value, byte[] out, int pos) {
+        if (value == null) {
+            out[pos++] = 'n';
+            out[pos++] = 'u';
+            out[pos++] = 'l';
+            out[pos++] = 'l';
+            return pos;
+        }
+        out[pos++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[pos++] = '\\';
+                out[pos++] = (byte) c;
+            } else if (c < 0x20) {
+                out[pos++] = '\\';
+                out[pos++] = 'u';
+                out[pos++] = '0';
+                out[pos++] = '0';
+                out[pos++] = HEX[c >> 4];
+                out[pos++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                out[pos++] = (byte) c;
+            } else {
+                byte[] encoded = String.valueOf(Character.isHighSurrogate(c) && i + 1 < value.length()
+                        ? new char[]{c, value.charAt(++i)}
+                        : new char[]{c}).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(encoded, 0, out, pos, encoded.length);
+                pos += encoded.length;
+            }
+        }
+        out[pos++] = '"';
+        return pos;
+    }
+
+    private static HttpHeaders problemHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        return headers;
+    }
+}
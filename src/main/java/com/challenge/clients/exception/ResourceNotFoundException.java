@@ -1,8 +1,25 @@
 package com.challenge.clients.exception;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
+
+    private final Long clientId;
 
     public ResourceNotFoundException(String message) {
         super(message);
+        this.clientId = null;
+    }
+
+    private ResourceNotFoundException(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public static ResourceNotFoundException client(Long id) {
+        return new ResourceNotFoundException(id);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : "Client not found with id: " + clientId;
     }
 }
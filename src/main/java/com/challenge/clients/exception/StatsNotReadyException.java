@@ -0,0 +1,8 @@
+package com.challenge.clients.exception;
+
+public class StatsNotReadyException extends DomainException {
+
+    public StatsNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,378 @@
+package com.challenge.clients.replica;
+
+import com.challenge.clients.cache.ClientNameMatcher;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.model.Client;
+import com.challenge.clients.service.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional in-memory copy of the {@code clientes} table, indexed by id, tax ID and email.
+ * <p>
+ * A dedicated connection {@code LISTEN}s on the channel fed by the
+ * {@code clientes_notify_change} trigger and re-reads changed rows in batches. The table
+ * is fully reloaded on (re)connect and on every reconciliation tick, which also repairs
+ * anything a dropped notification may have missed. Reads are only served while the
+ * replica is loaded and the listener has confirmed freshness within
+ * {@code clients.replica.max-staleness-ms}; otherwise callers fall back to the database.
+ * The trigger is installed separately ({@code replica/schema-replica.sql}); without it
+ * the listener stops and reads stay on the database.
+ * <p>
+ * The replica reads {@code clientes} from the main data source, which has no such table
+ * with {@code clients.sharding.enabled}, so the application refuses to start with both.
+ */
+@Component
+public class ClientReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientReplica.class);
+
+    static final String CHANNEL = "clientes_changes";
+    private static final String SELECT_ALL = "SELECT * FROM clientes";
+    private static final String SELECT_BY_IDS = "SELECT * FROM clientes WHERE id = ANY(?)";
+    private static final String TRIGGER_EXISTS = "SELECT EXISTS (SELECT 1 FROM pg_trigger "
+            + "WHERE tgname = 'clientes_notify_change' AND NOT tgisinternal)";
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+    private final int pollTimeoutMs;
+
+    private final Counter notifications;
+    private final Counter reloads;
+    private final Timer lag;
+
+    private volatile Indexes indexes = new Indexes();
+    /**
+     * Ids written locally while a reload reads the table, guarded by itself; {@code null}
+     * outside a reload. Their current rows are carried over to the reloaded indexes, as the
+     * reload's snapshot may predate them.
+     */
+    private final Object reloadLock = new Object();
+    private Set<Long> writtenDuringReload;
+    private volatile boolean loaded;
+    private volatile boolean reconcileRequested;
+    private volatile boolean running;
+    private volatile long lastFreshNanos;
+    private Thread listener;
+
+    public ClientReplica(DataSource dataSource,
+                         MeterRegistry meterRegistry,
+                         @Value("${clients.replica.enabled:false}") boolean enabled,
+                         @Value("${clients.replica.max-staleness-ms:5000}") long maxStalenessMs,
+                         @Value("${clients.replica.poll-timeout-ms:500}") int pollTimeoutMs,
+                         @Value("${clients.sharding.enabled:false}") boolean sharding) {
+        if (enabled && sharding) {
+            throw new IllegalStateException("clients.replica.enabled is not supported with clients.sharding.enabled");
+        }
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.pollTimeoutMs = pollTimeoutMs;
+
+        this.notifications = Counter.builder("clients.replica.notifications")
+                .description("Change notifications received from the database")
+                .register(meterRegistry);
+        this.reloads = Counter.builder("clients.replica.reloads")
+                .description("Full reloads of the replica")
+                .register(meterRegistry);
+        this.lag = Timer.builder("clients.replica.lag")
+                .description("Delay between a row change and its application to the replica")
+                .register(meterRegistry);
+        Gauge.builder("clients.replica.size", this, r -> r.indexes.byId.size())
+                .register(meterRegistry);
+        Gauge.builder("clients.replica.staleness", this, ClientReplica::stalenessSeconds)
+                .description("Seconds since the replica was last confirmed up to date")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "clients-replica");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clients.replica.reconcile-interval-ms:300000}",
+            initialDelayString = "${clients.replica.reconcile-interval-ms:300000}")
+    public void requestReconciliation() {
+        if (enabled) {
+            reconcileRequested = true;
+        }
+    }
+
+    public boolean isServing() {
+        return loaded && System.nanoTime() - lastFreshNanos <= maxStalenessNanos;
+    }
+
+    public Optional<ClientResponseDTO> findById(Long id) {
+        return Optional.ofNullable(indexes.byId.get(id)).map(ReplicatedClient::toResponseDTO);
+    }
+
+    /**
+     * The {@code updatedAt} of a replicated client, without building its DTO.
+     */
+    public Optional<LocalDateTime> findVersion(Long id) {
+        return Optional.ofNullable(indexes.byId.get(id)).map(ReplicatedClient::updatedAt);
+    }
+
+    public List<ClientResponseDTO> findAll() {
+        return indexes.byId.values().stream()
+                .map(ReplicatedClient::toResponseDTO)
+                .toList();
+    }
+
+    public Optional<Long> findIdByTaxId(String taxId) {
+        return Optional.ofNullable(indexes.byTaxId.get(taxId)).map(ReplicatedClient::id);
+    }
+
+    public Optional<Long> findIdByEmail(String email) {
+        return Optional.ofNullable(indexes.byEmail.get(email)).map(ReplicatedClient::id);
+    }
+
+    /**
+     * Returns {@code null} when the query can't be evaluated in memory, see
+     * {@link ClientNameMatcher#isMatchableInMemory(String)}.
+     */
+    public List<ClientResponseDTO> searchByName(String name) {
+        String query = name.toLowerCase(Locale.ROOT);
+        if (!ClientNameMatcher.isMatchableInMemory(query)) {
+            return null;
+        }
+        return indexes.byId.values().stream()
+                .filter(c -> ClientNameMatcher.matches(c.firstName(), c.lastName(), query))
+                .map(ReplicatedClient::toResponseDTO)
+                .toList();
+    }
+
+    /**
+     * Applies a local write once it commits, so this instance reads its own writes
+     * without waiting for the notification round trip.
+     */
+    public void applyAfterCommit(Client client) {
+        if (enabled) {
+            AfterCommit.run(() -> applyLocal(client.getId(), () -> {
+                Indexes current = indexes;
+                current.put(ReplicatedClient.fromEntity(client, current::name));
+            }));
+        }
+    }
+
+    public void removeAfterCommit(Long id) {
+        if (enabled) {
+            AfterCommit.run(() -> applyLocal(id, () -> indexes.remove(id)));
+        }
+    }
+
+    private void applyLocal(Long id, Runnable write) {
+        synchronized (reloadLock) {
+            write.run();
+            if (writtenDuringReload != null) {
+                writtenDuringReload.add(id);
+            }
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    if (!triggerInstalled(statement)) {
+                        log.error("Trigger clientes_notify_change is missing (see replica/schema-replica.sql); "
+                                + "the client replica stays disabled");
+                        running = false;
+                        return;
+                    }
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                reload(connection);
+
+                while (running) {
+                    if (reconcileRequested) {
+                        reload(connection);
+                    }
+                    PGNotification[] received = pgConnection.getNotifications(pollTimeoutMs);
+                    lastFreshNanos = System.nanoTime();
+                    if (received != null && received.length > 0) {
+                        apply(connection, received);
+                    }
+                }
+            } catch (SQLException e) {
+                loaded = false;
+                log.warn("Client replica listener disconnected, falling back to the database: {}", e.getMessage());
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void reload(Connection connection) throws SQLException {
+        reconcileRequested = false;
+        long started = System.nanoTime();
+        Indexes fresh = new Indexes();
+        synchronized (reloadLock) {
+            writtenDuringReload = new HashSet<>();
+        }
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(1_000);
+            try (ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+                while (rs.next()) {
+                    fresh.put(ReplicatedClient.fromRow(rs, fresh::name));
+                }
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        synchronized (reloadLock) {
+            // Rows changed by other instances meanwhile are queued as notifications and
+            // re-read after the swap.
+            for (Long id : writtenDuringReload) {
+                ReplicatedClient row = indexes.byId.get(id);
+                if (row != null) {
+                    fresh.put(row);
+                } else {
+                    fresh.remove(id);
+                }
+            }
+            writtenDuringReload = null;
+            indexes = fresh;
+        }
+        lastFreshNanos = started;
+        loaded = true;
+        reloads.increment();
+        log.info("Client replica loaded {} rows in {} ms", fresh.byId.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void apply(Connection connection, PGNotification[] received) throws SQLException {
+        long now = System.currentTimeMillis();
+        Set<Long> changed = new HashSet<>();
+        for (PGNotification notification : received) {
+            // Payload format: <TG_OP>:<id>:<epoch millis>, see notify_clientes_change()
+            String[] parts = notification.getParameter().split(":");
+            changed.add(Long.parseLong(parts[1]));
+            lag.record(Math.max(0, now - Long.parseLong(parts[2])), TimeUnit.MILLISECONDS);
+            notifications.increment();
+        }
+
+        // Deleted and updated rows are both re-read; anything no longer present is removed.
+        Indexes current = indexes;
+        Set<Long> missing = new HashSet<>(changed);
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_BY_IDS)) {
+            ps.setArray(1, connection.createArrayOf("bigint", new ArrayList<>(changed).toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ReplicatedClient row = ReplicatedClient.fromRow(rs, current::name);
+                    current.put(row);
+                    missing.remove(row.id());
+                }
+            }
+        }
+        missing.forEach(current::remove);
+    }
+
+    private static boolean triggerInstalled(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(TRIGGER_EXISTS)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private double stalenessSeconds() {
+        return loaded ? (System.nanoTime() - lastFreshNanos) / 1e9 : Double.NaN;
+    }
+
+    /**
+     * {@code byId} stays a boxed {@link ConcurrentSkipListMap}: reads run lock-free next to
+     * the listener's writes and {@link #findAll()} needs id order, which the JDK offers for
+     * no primitive-keyed map, and the project does not depend on a primitive collections
+     * library. The other indexes point at the row itself rather than at a boxed id.
+     * {@code names} deduplicates names and companies and is dropped with the indexes on
+     * every reload, so values of deleted or renamed clients do not accumulate.
+     */
+    private static final class Indexes {
+
+        private final ConcurrentNavigableMap<Long, ReplicatedClient> byId = new ConcurrentSkipListMap<>();
+        private final ConcurrentMap<String, ReplicatedClient> byTaxId = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ReplicatedClient> byEmail = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+        String name(String value) {
+            String existing = names.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        }
+
+        synchronized void put(ReplicatedClient row) {
+            ReplicatedClient previous = byId.put(row.id(), row);
+            if (previous != null) {
+                byTaxId.remove(previous.taxId(), previous);
+                byEmail.remove(previous.email(), previous);
+            }
+            byTaxId.put(row.taxId(), row);
+            byEmail.put(row.email(), row);
+        }
+
+        synchronized void remove(Long id) {
+            ReplicatedClient previous = byId.remove(id);
+            if (previous != null) {
+                byTaxId.remove(previous.taxId(), previous);
+                byEmail.remove(previous.email(), previous);
+            }
+        }
+    }
+}
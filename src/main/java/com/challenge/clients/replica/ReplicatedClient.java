@@ -0,0 +1,94 @@
+package com.challenge.clients.replica;
+
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.model.Client;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compact, immutable copy of a {@code clientes} row. Dates are stored as primitives and
+ * the low-cardinality strings (names, company) go through the replica's own deduplicating
+ * pool ({@code names}) so repeated values share one instance. {@link String#intern()} is
+ * not used: its table is JVM-wide and never shrinks, while the pool is dropped on reload.
+ */
+record ReplicatedClient(
+        long id,
+        String firstName,
+        String lastName,
+        String companyName,
+        String taxId,
+        int birthEpochDay,
+        String phoneNumber,
+        String email,
+        long createdAtMicros,
+        long updatedAtMicros) {
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    static ReplicatedClient fromRow(ResultSet rs, UnaryOperator<String> names) throws SQLException {
+        return new ReplicatedClient(
+                rs.getLong("id"),
+                names.apply(rs.getString("nombre")),
+                names.apply(rs.getString("apellido")),
+                names.apply(rs.getString("razon_social")),
+                rs.getString("cuit"),
+                (int) rs.getObject("fecha_nacimiento", LocalDate.class).toEpochDay(),
+                rs.getString("telefono_celular"),
+                rs.getString("email"),
+                toMicros(rs.getObject("fecha_creacion", LocalDateTime.class)),
+                toMicros(rs.getObject("fecha_modificacion", LocalDateTime.class)));
+    }
+
+    static ReplicatedClient fromEntity(Client client, UnaryOperator<String> names) {
+        return new ReplicatedClient(
+                client.getId(),
+                names.apply(client.getFirstName()),
+                names.apply(client.getLastName()),
+                names.apply(client.getCompanyName()),
+                client.getTaxId(),
+                (int) client.getBirthDate().toEpochDay(),
+                client.getPhoneNumber(),
+                client.getEmail(),
+                toMicros(client.getCreatedAt()),
+                toMicros(client.getUpdatedAt()));
+    }
+
+    ClientResponseDTO toResponseDTO() {
+        return ClientResponseDTO.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .companyName(companyName)
+                .taxId(taxId)
+                .birthDate(LocalDate.ofEpochDay(birthEpochDay))
+                .phoneNumber(phoneNumber)
+                .email(email)
+                .createdAt(fromMicros(createdAtMicros))
+                .updatedAt(fromMicros(updatedAtMicros))
+                .build();
+    }
+
+    LocalDateTime updatedAt() {
+        return fromMicros(updatedAtMicros);
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        if (value == null) {
+            return NO_TIMESTAMP;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -10,12 +10,23 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientStore {
 
+    @Override
     Optional<Client> findByTaxId(String taxId);
 
+    @Override
     Optional<Client> findByEmail(String email);
 
+    @Override
     @Query(value = "SELECT * FROM search_clients_by_name(:name)", nativeQuery = true)
     List<Client> searchByName(@Param("name") String name);
+
+    @Override
+    @Query(value = "SELECT * FROM clientes "
+            + "WHERE birth_month_day BETWEEN :from AND :to AND (birth_month_day, id) > (:afterMonthDay, :afterId) "
+            + "ORDER BY birth_month_day, id LIMIT :limit", nativeQuery = true)
+    List<Client> findByBirthMonthDay(@Param("from") int fromMonthDay, @Param("to") int toMonthDay,
+                                     @Param("afterMonthDay") int afterMonthDay, @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
 }
@@ -0,0 +1,35 @@
+package com.challenge.clients.repository;
+
+import com.challenge.clients.model.Client;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence operations the service layer relies on. {@link ClientRepository} is the
+ * default single-database implementation; {@code ShardedClientStore} replaces it when
+ * {@code clients.sharding.enabled} is set.
+ */
+public interface ClientStore {
+
+    List<Client> findAll();
+
+    Optional<Client> findById(Long id);
+
+    Optional<Client> findByTaxId(String taxId);
+
+    Optional<Client> findByEmail(String email);
+
+    List<Client> searchByName(String name);
+
+    /**
+     * Returns up to {@code limit} clients whose {@code birth_month_day} lies in
+     * {@code [fromMonthDay, toMonthDay]}, positioned after {@code (afterMonthDay, afterId)}
+     * and ordered by month-day, then id.
+     */
+    List<Client> findByBirthMonthDay(int fromMonthDay, int toMonthDay, int afterMonthDay, long afterId, int limit);
+
+    <S extends Client> S save(S client);
+
+    void delete(Client client);
+}
@@ -0,0 +1,57 @@
+package com.challenge.clients.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes the Hikari pool of the {@code perf} profile from the database host instead of a
+ * fixed number: {@code cores * 2} connections keep the database busy while others wait on
+ * disk (plus one for the spindle), scaled by {@code (round trip + query) / query} because a
+ * connection waiting on the network is not using a core. A small pool queues extra
+ * requests in Hikari rather than in PostgreSQL.
+ * <p>
+ * Inputs are {@code clients.db-pool.database-cores}, {@code round-trip-ms} and
+ * {@code query-ms}; {@code clients.db-pool.size} overrides the result.
+ */
+@Configuration
+@Profile("perf")
+public class ConnectionPoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolConfig.class);
+
+    @Bean
+    static BeanPostProcessor connectionPoolSizingPostProcessor(Environment environment) {
+        int size = environment.getProperty("clients.db-pool.size", Integer.class, 0);
+        if (size <= 0) {
+            size = poolSize(environment.getProperty("clients.db-pool.database-cores", Integer.class, 4),
+                    environment.getProperty("clients.db-pool.round-trip-ms", Double.class, 0.0),
+                    environment.getProperty("clients.db-pool.query-ms", Double.class, 1.0));
+        }
+        int poolSize = size;
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                    log.info("Connection pool {} sized to {}", beanName, poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int databaseCores, double roundTripMs, double queryMs) {
+        if (databaseCores < 1 || roundTripMs < 0 || queryMs <= 0) {
+            throw new IllegalArgumentException("clients.db-pool needs database-cores >= 1, round-trip-ms >= 0 "
+                    + "and query-ms > 0");
+        }
+        return (int) Math.ceil(databaseCores * 2 * (roundTripMs + queryMs) / queryMs) + 1;
+    }
+}
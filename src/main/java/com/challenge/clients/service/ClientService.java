@@ -1,9 +1,12 @@
 package com.challenge.clients.service;
 
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
 import com.challenge.clients.dto.ClientRequestDTO;
 import com.challenge.clients.dto.ClientResponseDTO;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ClientService {
 
@@ -11,8 +14,20 @@ public interface ClientService {
 
     ClientResponseDTO findById(Long id);
 
+    /**
+     * The {@code updatedAt} that {@link #findById(Long)} would return, if it is known
+     * without loading the client; empty otherwise, including when the client is missing.
+     */
+    Optional<LocalDateTime> findVersion(Long id);
+
     List<ClientResponseDTO> searchByName(String name);
 
+    /**
+     * Clients whose birthday falls within the next {@code days} days, in the order they
+     * come up. Pass the returned {@code nextCursor} to fetch the following page.
+     */
+    ClientBirthdayPageDTO findUpcomingBirthdays(int days, String cursor, int size);
+
     ClientResponseDTO create(ClientRequestDTO request);
 
     ClientResponseDTO update(Long id, ClientRequestDTO request);
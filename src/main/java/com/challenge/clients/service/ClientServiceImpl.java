@@ -1,50 +1,148 @@
 package com.challenge.clients.service;
 
+import com.challenge.clients.birthdays.BirthdayWindow;
+import com.challenge.clients.cache.ClientSearchCache;
+import com.challenge.clients.cache.SingleFlight;
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
 import com.challenge.clients.dto.ClientRequestDTO;
 import com.challenge.clients.dto.ClientResponseDTO;
 import com.challenge.clients.exception.DuplicateResourceException;
+import com.challenge.clients.exception.InvalidRequestException;
 import com.challenge.clients.exception.ResourceNotFoundException;
 import com.challenge.clients.model.Client;
-import com.challenge.clients.repository.ClientRepository;
-import lombok.RequiredArgsConstructor;
+import com.challenge.clients.replica.ClientReplica;
+import com.challenge.clients.repository.ClientStore;
+import com.challenge.clients.stats.ClientStats;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ClientServiceImpl implements ClientService {
 
     private static final Logger log = LoggerFactory.getLogger(ClientServiceImpl.class);
 
-    private final ClientRepository clientRepository;
+    static final int MAX_BIRTHDAY_PAGE_SIZE = 1_000;
+
+    private final ClientStore clientStore;
+    private final ClientSearchCache searchCache;
+    private final ClientReplica clientReplica;
+    private final ClientStats clientStats;
+
+    private final SingleFlight<Boolean, List<ClientResponseDTO>> findAllFlight;
+    private final SingleFlight<Long, ClientResponseDTO> findByIdFlight;
+
+    public ClientServiceImpl(ClientStore clientStore,
+                             ClientSearchCache searchCache,
+                             ClientReplica clientReplica,
+                             ClientStats clientStats,
+                             MeterRegistry meterRegistry,
+                             @Value("${clients.single-flight.max-wait-ms:2000}") long maxWaitMs) {
+        this.clientStore = clientStore;
+        this.searchCache = searchCache;
+        this.clientReplica = clientReplica;
+        this.clientStats = clientStats;
+
+        Duration maxWait = Duration.ofMillis(maxWaitMs);
+        this.findAllFlight = new SingleFlight<>("findAll", meterRegistry, maxWait);
+        this.findByIdFlight = new SingleFlight<>("findById", meterRegistry, maxWait);
+    }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ClientResponseDTO> findAll() {
         log.info("Fetching all clients");
-        return clientRepository.findAll().stream()
+        if (clientReplica.isServing()) {
+            return clientReplica.findAll();
+        }
+        return findAllFlight.execute(Boolean.TRUE, () -> clientStore.findAll().stream()
                 .map(this::toResponseDTO)
-                .toList();
+                .toList());
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ClientResponseDTO findById(Long id) {
         log.info("Fetching client with id={}", id);
-        Client client = clientRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
-        return toResponseDTO(client);
+        if (clientReplica.isServing()) {
+            Optional<ClientResponseDTO> replicated = clientReplica.findById(id);
+            if (replicated.isPresent()) {
+                return replicated.get();
+            }
+        }
+        return findByIdFlight.execute(id, () -> clientStore.findById(id)
+                .map(this::toResponseDTO)
+                .orElseThrow(() -> ResourceNotFoundException.client(id)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<LocalDateTime> findVersion(Long id) {
+        return clientReplica.isServing() ? clientReplica.findVersion(id) : Optional.empty();
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ClientResponseDTO> searchByName(String name) {
         log.info("Searching clients by name={}", name);
-        return clientRepository.searchByName(name).stream()
+        if (clientReplica.isServing()) {
+            List<ClientResponseDTO> replicated = clientReplica.searchByName(name);
+            if (replicated != null) {
+                return replicated;
+            }
+        }
+        // The search cache coalesces concurrent identical queries itself.
+        return searchCache.search(name, query -> clientStore.searchByName(query).stream()
                 .map(this::toResponseDTO)
-                .toList();
+                .toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ClientBirthdayPageDTO findUpcomingBirthdays(int days, String cursor, int size) {
+        log.info("Fetching upcoming birthdays days={} cursor={}", days, cursor);
+        if (size < 1 || size > MAX_BIRTHDAY_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_BIRTHDAY_PAGE_SIZE);
+        }
+        BirthdayWindow.Position position = cursor == null
+                ? BirthdayWindow.of(LocalDate.now(), days).start()
+                : BirthdayWindow.parseCursor(cursor, days);
+        BirthdayWindow window = position.window();
+
+        // One extra row tells whether another page follows.
+        List<Client> rows = new ArrayList<>(size + 1);
+        int afterMonthDay = position.monthDay();
+        long afterId = position.id();
+        for (int i = position.segment(); i < window.segments().size() && rows.size() <= size; i++) {
+            BirthdayWindow.Segment segment = window.segments().get(i);
+            rows.addAll(clientStore.findByBirthMonthDay(segment.from(), segment.to(), afterMonthDay, afterId,
+                    size + 1 - rows.size()));
+            afterMonthDay = 0;
+            afterId = 0;
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Client last = rows.get(size - 1);
+            nextCursor = window.cursor(BirthdayWindow.monthDay(last.getBirthDate()), last.getId());
+        }
+        return ClientBirthdayPageDTO.builder()
+                .clients(rows.stream().map(this::toResponseDTO).toList())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
@@ -54,7 +152,11 @@ public class ClientServiceImpl implements ClientService {
         checkForDuplicates(request.getTaxId(), request.getEmail(), null);
 
         Client client = toEntity(request);
-        Client saved = clientRepository.save(client);
+        Client saved = clientStore.save(client);
+        searchCache.invalidate(saved.getId(), saved.getFirstName(), saved.getLastName());
+        clientReplica.applyAfterCommit(saved);
+        clientStats.recordAfterCommit(null, ClientStats.Dimensions.of(saved));
+        forgetInFlightReads(saved.getId());
         log.info("Client created with id={}", saved.getId());
         return toResponseDTO(saved);
     }
@@ -63,10 +165,11 @@ public class ClientServiceImpl implements ClientService {
     @Transactional
     public ClientResponseDTO update(Long id, ClientRequestDTO request) {
         log.info("Updating client with id={}", id);
-        Client existing = clientRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
+        Client existing = clientStore.findById(id)
+                .orElseThrow(() -> ResourceNotFoundException.client(id));
 
         checkForDuplicates(request.getTaxId(), request.getEmail(), id);
+        ClientStats.Dimensions before = ClientStats.Dimensions.of(existing);
 
         existing.setFirstName(request.getFirstName());
         existing.setLastName(request.getLastName());
@@ -76,7 +179,11 @@ public class ClientServiceImpl implements ClientService {
         existing.setPhoneNumber(request.getPhoneNumber());
         existing.setEmail(request.getEmail());
 
-        Client updated = clientRepository.save(existing);
+        Client updated = clientStore.save(existing);
+        searchCache.invalidate(id, updated.getFirstName(), updated.getLastName());
+        clientReplica.applyAfterCommit(updated);
+        clientStats.recordAfterCommit(before, ClientStats.Dimensions.of(updated));
+        forgetInFlightReads(id);
         log.info("Client updated with id={}", updated.getId());
         return toResponseDTO(updated);
     }
@@ -85,22 +192,50 @@ public class ClientServiceImpl implements ClientService {
     @Transactional
     public void delete(Long id) {
         log.info("Deleting client with id={}", id);
-        Client client = clientRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
-        clientRepository.delete(client);
+        Client client = clientStore.findById(id)
+                .orElseThrow(() -> ResourceNotFoundException.client(id));
+        clientStore.delete(client);
+        searchCache.invalidate(id, client.getFirstName(), client.getLastName());
+        clientReplica.removeAfterCommit(id);
+        clientStats.recordAfterCommit(ClientStats.Dimensions.of(client), null);
+        forgetInFlightReads(id);
         log.info("Client deleted with id={}", id);
     }
 
+    /**
+     * Drops cached and in-flight reads of a client whose row was changed outside this
+     * service, such as by the write-behind flush.
+     */
+    public void refresh(Long id, String firstName, String lastName) {
+        searchCache.invalidate(id, firstName, lastName);
+        forgetInFlightReads(id);
+    }
+
+    private void forgetInFlightReads(Long id) {
+        AfterCommit.run(() -> {
+            findAllFlight.forgetAll();
+            findByIdFlight.forget(id);
+        });
+    }
+
     private void checkForDuplicates(String taxId, String email, Long excludeId) {
-        clientRepository.findByTaxId(taxId).ifPresent(c -> {
-            if (!c.getId().equals(excludeId)) {
-                throw new DuplicateResourceException("A client with tax ID " + taxId + " already exists");
+        boolean fromReplica = clientReplica.isServing();
+
+        Optional<Long> taxIdOwner = fromReplica
+                ? clientReplica.findIdByTaxId(taxId)
+                : clientStore.findByTaxId(taxId).map(Client::getId);
+        taxIdOwner.ifPresent(ownerId -> {
+            if (!ownerId.equals(excludeId)) {
+                throw DuplicateResourceException.taxId(taxId);
             }
         });
 
-        clientRepository.findByEmail(email).ifPresent(c -> {
-            if (!c.getId().equals(excludeId)) {
-                throw new DuplicateResourceException("A client with email " + email + " already exists");
+        Optional<Long> emailOwner = fromReplica
+                ? clientReplica.findIdByEmail(email)
+                : clientStore.findByEmail(email).map(Client::getId);
+        emailOwner.ifPresent(ownerId -> {
+            if (!ownerId.equals(excludeId)) {
+                throw DuplicateResourceException.email(email);
             }
         });
     }
@@ -0,0 +1,37 @@
+package com.challenge.clients.sharding;
+
+import java.util.Optional;
+
+/**
+ * Global lookup table that enforces uniqueness of tax IDs and emails across shards and
+ * hands out the sequence part of client ids.
+ */
+public interface ClientDirectory {
+
+    enum Key {
+        TAX_ID("T"),
+        EMAIL("E");
+
+        private final String code;
+
+        Key(String code) {
+            this.code = code;
+        }
+
+        public String code() {
+            return code;
+        }
+    }
+
+    long nextSequence();
+
+    /**
+     * Reserves {@code value} for {@code clientId}. Returns {@code false} when another
+     * client already holds it.
+     */
+    boolean claim(Key key, String value, long clientId);
+
+    void release(Key key, String value, long clientId);
+
+    Optional<Long> lookup(Key key, String value);
+}
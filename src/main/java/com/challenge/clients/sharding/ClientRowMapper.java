@@ -0,0 +1,30 @@
+package com.challenge.clients.sharding;
+
+import com.challenge.clients.model.Client;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+class ClientRowMapper implements RowMapper<Client> {
+
+    static final ClientRowMapper INSTANCE = new ClientRowMapper();
+
+    @Override
+    public Client mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Client.builder()
+                .id(rs.getLong("id"))
+                .firstName(rs.getString("nombre"))
+                .lastName(rs.getString("apellido"))
+                .companyName(rs.getString("razon_social"))
+                .taxId(rs.getString("cuit"))
+                .birthDate(rs.getObject("fecha_nacimiento", LocalDate.class))
+                .phoneNumber(rs.getString("telefono_celular"))
+                .email(rs.getString("email"))
+                .createdAt(rs.getObject("fecha_creacion", LocalDateTime.class))
+                .updatedAt(rs.getObject("fecha_modificacion", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.challenge.clients.sharding;
+
+import com.challenge.clients.model.Client;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One physical partition of {@code clientes}. Multi-row reads return rows ordered by id
+ * (birthday queries by month-day, then id) so results from several shards can be merged
+ * without re-sorting.
+ */
+public interface ClientShard {
+
+    Optional<Client> findById(long id);
+
+    Optional<Client> findByTaxId(String taxId);
+
+    List<Client> findAll();
+
+    List<Client> searchByName(String name);
+
+    /**
+     * See {@link com.challenge.clients.repository.ClientStore#findByBirthMonthDay}.
+     */
+    List<Client> findByBirthMonthDay(int fromMonthDay, int toMonthDay, int afterMonthDay, long afterId, int limit);
+
+    void insert(Client client);
+
+    boolean update(Client client);
+
+    boolean delete(long id);
+
+    /**
+     * Returns up to {@code limit} rows of {@code bucket} with an id greater than
+     * {@code afterId}, for offline resharding.
+     */
+    List<Client> findBucket(int bucket, int bucketCount, long afterId, int limit);
+
+    /**
+     * Inserts rows copied from another shard, skipping ids that already exist so an
+     * interrupted resharding run can be repeated.
+     */
+    void copyIn(List<Client> clients);
+
+    void deleteAll(Collection<Long> ids);
+}
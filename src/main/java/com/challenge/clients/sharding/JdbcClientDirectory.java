@@ -0,0 +1,55 @@
+package com.challenge.clients.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * {@link ClientDirectory} stored in the primary database, see
+ * {@code sharding/schema-directory.sql}.
+ * <p>
+ * Claims and releases commit in their own transaction ({@code REQUIRES_NEW}), like the
+ * shard writes they guard, which auto-commit on the shard's pool. Joining the caller's
+ * transaction would let a rollback undo a claim whose shard row had already been written.
+ */
+class JdbcClientDirectory implements ClientDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+
+    JdbcClientDirectory(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public long nextSequence() {
+        return jdbcTemplate.queryForObject("SELECT nextval('client_id_seq')", Long.class);
+    }
+
+    @Override
+    public boolean claim(Key key, String value, long clientId) {
+        return requiresNew.execute(status -> {
+            int inserted = jdbcTemplate.update("INSERT INTO client_directory (key_type, key_value, client_id) "
+                    + "VALUES (?, ?, ?) ON CONFLICT (key_type, key_value) DO NOTHING", key.code(), value, clientId);
+            return inserted == 1 || lookup(key, value).filter(owner -> owner == clientId).isPresent();
+        });
+    }
+
+    @Override
+    public void release(Key key, String value, long clientId) {
+        requiresNew.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM client_directory WHERE key_type = ? AND key_value = ? AND client_id = ?",
+                key.code(), value, clientId));
+    }
+
+    @Override
+    public Optional<Long> lookup(Key key, String value) {
+        return jdbcTemplate.queryForList("SELECT client_id FROM client_directory WHERE key_type = ? AND key_value = ?",
+                Long.class, key.code(), value).stream().findFirst();
+    }
+}
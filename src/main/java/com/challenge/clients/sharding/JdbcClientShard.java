@@ -0,0 +1,139 @@
+package com.challenge.clients.sharding;
+
+import com.challenge.clients.model.Client;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * {@link ClientShard} backed by its own PostgreSQL database and connection pool. The
+ * shard schema is in {@code sharding/schema-shard.sql}.
+ */
+class JdbcClientShard implements ClientShard, AutoCloseable {
+
+    private static final String COLUMNS = "id, nombre, apellido, razon_social, cuit, fecha_nacimiento, "
+            + "telefono_celular, email, fecha_creacion, fecha_modificacion";
+    private static final String INSERT = "INSERT INTO clientes (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param queryTimeout applied to every statement, so a hung shard fails the call instead
+     *                     of holding a pool and executor thread after the caller gave up
+     */
+    JdbcClientShard(int index, ShardingProperties.Shard config, Properties dataSourceProperties,
+                    Duration queryTimeout) {
+        this.dataSource = new HikariDataSource();
+        dataSource.setPoolName("clients-shard-" + index);
+        dataSource.setJdbcUrl(config.getUrl());
+        dataSource.setUsername(config.getUsername());
+        dataSource.setPassword(config.getPassword());
+        dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+        dataSource.setDataSourceProperties(dataSourceProperties);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+    }
+
+    @Override
+    public Optional<Client> findById(long id) {
+        return jdbcTemplate.query("SELECT * FROM clientes WHERE id = ?", ClientRowMapper.INSTANCE, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    public Optional<Client> findByTaxId(String taxId) {
+        return jdbcTemplate.query("SELECT * FROM clientes WHERE cuit = ?", ClientRowMapper.INSTANCE, taxId)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return jdbcTemplate.query("SELECT * FROM clientes ORDER BY id", ClientRowMapper.INSTANCE);
+    }
+
+    @Override
+    public List<Client> searchByName(String name) {
+        return jdbcTemplate.query("SELECT * FROM clientes "
+                        + "WHERE nombre ILIKE '%' || ? || '%' OR apellido ILIKE '%' || ? || '%' ORDER BY id",
+                ClientRowMapper.INSTANCE, name, name);
+    }
+
+    @Override
+    public List<Client> findByBirthMonthDay(int fromMonthDay, int toMonthDay, int afterMonthDay, long afterId,
+                                            int limit) {
+        return jdbcTemplate.query("SELECT * FROM clientes WHERE birth_month_day BETWEEN ? AND ? "
+                        + "AND (birth_month_day, id) > (?, ?) ORDER BY birth_month_day, id LIMIT ?",
+                ClientRowMapper.INSTANCE, fromMonthDay, toMonthDay, afterMonthDay, afterId, limit);
+    }
+
+    @Override
+    public void insert(Client client) {
+        jdbcTemplate.update(INSERT, ps -> bindInsert(ps, client));
+    }
+
+    @Override
+    public boolean update(Client client) {
+        return jdbcTemplate.update("UPDATE clientes SET nombre = ?, apellido = ?, razon_social = ?, cuit = ?, "
+                        + "fecha_nacimiento = ?, telefono_celular = ?, email = ?, fecha_modificacion = ? WHERE id = ?",
+                client.getFirstName(), client.getLastName(), client.getCompanyName(), client.getTaxId(),
+                client.getBirthDate(), client.getPhoneNumber(), client.getEmail(), client.getUpdatedAt(),
+                client.getId()) == 1;
+    }
+
+    @Override
+    public boolean delete(long id) {
+        return jdbcTemplate.update("DELETE FROM clientes WHERE id = ?", id) == 1;
+    }
+
+    @Override
+    public List<Client> findBucket(int bucket, int bucketCount, long afterId, int limit) {
+        return jdbcTemplate.query("SELECT * FROM clientes WHERE (id & ?) = ? AND id > ? ORDER BY id LIMIT ?",
+                ClientRowMapper.INSTANCE, bucketCount - 1, bucket, afterId, limit);
+    }
+
+    @Override
+    public void copyIn(List<Client> clients) {
+        jdbcTemplate.batchUpdate(INSERT + " ON CONFLICT (id) DO NOTHING", clients, clients.size(),
+                JdbcClientShard::bindInsert);
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        jdbcTemplate.update("DELETE FROM clientes WHERE id = ANY(?)", ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", ids.toArray());
+            ps.setArray(1, array);
+        });
+    }
+
+    void query(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(sql, handler);
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private static void bindInsert(PreparedStatement ps, Client client) throws SQLException {
+        ps.setLong(1, client.getId());
+        ps.setString(2, client.getFirstName());
+        ps.setString(3, client.getLastName());
+        ps.setString(4, client.getCompanyName());
+        ps.setString(5, client.getTaxId());
+        ps.setObject(6, client.getBirthDate());
+        ps.setString(7, client.getPhoneNumber());
+        ps.setString(8, client.getEmail());
+        ps.setObject(9, client.getCreatedAt());
+        ps.setObject(10, client.getUpdatedAt());
+    }
+}
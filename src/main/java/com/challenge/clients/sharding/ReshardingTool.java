@@ -0,0 +1,72 @@
+package com.challenge.clients.sharding;
+
+import com.challenge.clients.model.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Offline tool that moves every bucket whose owner differs between two shard maps.
+ * <p>
+ * Rows are copied to the target shard and then deleted from the source one batch at a
+ * time; copies skip ids that already exist, so a run interrupted half-way can simply be
+ * repeated. Ids and directory entries don't change. The application must not serve
+ * writes while it runs.
+ */
+public class ReshardingTool {
+
+    private static final Logger log = LoggerFactory.getLogger(ReshardingTool.class);
+
+    private final ShardMap from;
+    private final ShardMap to;
+    private final List<? extends ClientShard> shards;
+    private final int batchSize;
+
+    public ReshardingTool(ShardMap from, ShardMap to, List<? extends ClientShard> shards, int batchSize) {
+        if (from.bucketCount() != to.bucketCount()) {
+            throw new IllegalArgumentException("Source and target maps must use the same number of buckets");
+        }
+        if (to.shardCount() > shards.size()) {
+            throw new IllegalArgumentException("Target map references " + to.shardCount()
+                    + " shards but only " + shards.size() + " are configured");
+        }
+        this.from = from;
+        this.to = to;
+        this.shards = shards;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the number of rows moved.
+     */
+    public long run() {
+        long moved = 0;
+        for (int bucket = 0; bucket < from.bucketCount(); bucket++) {
+            int source = from.shardOfBucket(bucket);
+            int target = to.shardOfBucket(bucket);
+            if (source != target) {
+                long rows = moveBucket(bucket, shards.get(source), shards.get(target));
+                log.info("Moved bucket {} from shard {} to shard {} ({} rows)", bucket, source, target, rows);
+                moved += rows;
+            }
+        }
+        log.info("Resharding finished, {} rows moved", moved);
+        return moved;
+    }
+
+    private long moveBucket(int bucket, ClientShard source, ClientShard target) {
+        long moved = 0;
+        long afterId = -1;
+        while (true) {
+            List<Client> batch = source.findBucket(bucket, from.bucketCount(), afterId, batchSize);
+            if (batch.isEmpty()) {
+                return moved;
+            }
+            target.copyIn(batch);
+            source.deleteAll(batch.stream().map(Client::getId).toList());
+            moved += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+}
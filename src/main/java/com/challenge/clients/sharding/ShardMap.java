@@ -0,0 +1,111 @@
+package com.challenge.clients.sharding;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps clients to shards through a fixed number of buckets.
+ * <p>
+ * A client's bucket is derived from its tax ID when it is created and stored in the low
+ * {@code bucketBits} bits of its id, so any id can be routed without a lookup. Buckets
+ * are assigned to shards by configuration; resharding moves whole buckets and never
+ * changes an id.
+ */
+public final class ShardMap {
+
+    private final int bucketBits;
+    private final int[] shardByBucket;
+    private final int shardCount;
+
+    private ShardMap(int bucketBits, int[] shardByBucket, int shardCount) {
+        this.bucketBits = bucketBits;
+        this.shardByBucket = shardByBucket;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Builds a map from one bucket spec per shard, e.g. {@code ["0-511", "512-1023"]}.
+     * Every bucket must be owned by exactly one shard; a spec that is missing, malformed or
+     * out of range is rejected with an {@link IllegalArgumentException}.
+     */
+    public static ShardMap parse(int bucketBits, List<String> bucketsPerShard) {
+        if (bucketBits < 1 || bucketBits > 16) {
+            throw new IllegalArgumentException("bucket-bits must be between 1 and 16");
+        }
+        int[] shardByBucket = new int[1 << bucketBits];
+        Arrays.fill(shardByBucket, -1);
+        if (bucketsPerShard.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (int shard = 0; shard < bucketsPerShard.size(); shard++) {
+            String spec = bucketsPerShard.get(shard);
+            if (spec == null || spec.isBlank()) {
+                throw new IllegalArgumentException("Shard " + shard + " has no buckets");
+            }
+            for (String range : spec.split(",")) {
+                String[] bounds = range.trim().split("-");
+                if (bounds.length > 2) {
+                    throw new IllegalArgumentException("Invalid bucket range '" + range.trim() + "' for shard " + shard);
+                }
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                if (from < 0 || to >= shardByBucket.length || from > to) {
+                    throw new IllegalArgumentException("Invalid bucket range '" + range.trim() + "' for shard " + shard
+                            + ": buckets go from 0 to " + (shardByBucket.length - 1));
+                }
+                for (int bucket = from; bucket <= to; bucket++) {
+                    if (shardByBucket[bucket] != -1) {
+                        throw new IllegalArgumentException("Bucket " + bucket + " is assigned to more than one shard");
+                    }
+                    shardByBucket[bucket] = shard;
+                }
+            }
+        }
+        for (int bucket = 0; bucket < shardByBucket.length; bucket++) {
+            if (shardByBucket[bucket] == -1) {
+                throw new IllegalArgumentException("Bucket " + bucket + " is not assigned to any shard");
+            }
+        }
+        return new ShardMap(bucketBits, shardByBucket, bucketsPerShard.size());
+    }
+
+    public int bucketCount() {
+        return shardByBucket.length;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int bucketOfTaxId(String taxId) {
+        // String.hashCode is fixed by the language spec, so bucket assignment is stable
+        // across JVMs; the finalizer spreads the poorly distributed low bits.
+        int h = taxId.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & (shardByBucket.length - 1);
+    }
+
+    public int bucketOfId(long id) {
+        return (int) (id & (shardByBucket.length - 1));
+    }
+
+    public long encodeId(long sequence, int bucket) {
+        return (sequence << bucketBits) | bucket;
+    }
+
+    public int shardOfBucket(int bucket) {
+        return shardByBucket[bucket];
+    }
+
+    public int shardOfId(long id) {
+        return shardByBucket[bucketOfId(id)];
+    }
+
+    public int shardOfTaxId(String taxId) {
+        return shardByBucket[bucketOfTaxId(taxId)];
+    }
+}
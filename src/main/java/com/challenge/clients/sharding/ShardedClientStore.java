@@ -0,0 +1,307 @@
+package com.challenge.clients.sharding;
+
+import com.challenge.clients.birthdays.BirthdayWindow;
+import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.model.Client;
+import com.challenge.clients.repository.ClientStore;
+import com.challenge.clients.sharding.ClientDirectory.Key;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * {@link ClientStore} that partitions clients across several databases.
+ * <p>
+ * Lookups by id are routed with the bucket encoded in the id, lookups by tax ID with
+ * the bucket hashed from it (falling back to the directory if the tax ID changed after
+ * creation), and lookups by email through the directory. Multi-row reads query every
+ * shard in parallel and merge the id-ordered partial results.
+ * <p>
+ * Shards are separate databases, so a write is not atomic across them: directory
+ * claims are made first and released again if the shard write fails. Claims, shard
+ * writes and releases each commit on their own, so they are not undone if the caller's
+ * transaction later rolls back; the directory and the shards stay consistent with each
+ * other either way.
+ */
+public class ShardedClientStore implements ClientStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedClientStore.class);
+
+    private static final Comparator<Client> BY_ID = Comparator.comparing(Client::getId);
+    private static final Comparator<Client> BY_BIRTH_MONTH_DAY =
+            Comparator.comparingInt((Client c) -> BirthdayWindow.monthDay(c.getBirthDate())).thenComparing(BY_ID);
+
+    private final ShardMap shardMap;
+    private final List<? extends ClientShard> shards;
+    private final ClientDirectory directory;
+    private final ExecutorService executor;
+    private final long queryTimeoutNanos;
+
+    public ShardedClientStore(ShardMap shardMap, List<? extends ClientShard> shards, ClientDirectory directory,
+                              ExecutorService executor, Duration queryTimeout) {
+        if (shardMap.shardCount() != shards.size()) {
+            throw new IllegalArgumentException("Shard map covers " + shardMap.shardCount()
+                    + " shards but " + shards.size() + " are configured");
+        }
+        this.shardMap = shardMap;
+        this.shards = shards;
+        this.directory = directory;
+        this.executor = executor;
+        this.queryTimeoutNanos = queryTimeout.toNanos();
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return scatterGather(ClientShard::findAll, BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Optional<Client> findById(Long id) {
+        return shardOfId(id).findById(id);
+    }
+
+    @Override
+    public Optional<Client> findByTaxId(String taxId) {
+        Optional<Client> routed = shards.get(shardMap.shardOfTaxId(taxId)).findByTaxId(taxId);
+        if (routed.isPresent()) {
+            return routed;
+        }
+        return directory.lookup(Key.TAX_ID, taxId)
+                .flatMap(this::findById)
+                .filter(c -> c.getTaxId().equals(taxId));
+    }
+
+    @Override
+    public Optional<Client> findByEmail(String email) {
+        return directory.lookup(Key.EMAIL, email)
+                .flatMap(this::findById)
+                .filter(c -> c.getEmail().equals(email));
+    }
+
+    @Override
+    public List<Client> searchByName(String name) {
+        return scatterGather(shard -> shard.searchByName(name), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Client> findByBirthMonthDay(int fromMonthDay, int toMonthDay, int afterMonthDay, long afterId,
+                                            int limit) {
+        return scatterGather(shard -> shard.findByBirthMonthDay(fromMonthDay, toMonthDay, afterMonthDay, afterId,
+                limit), BY_BIRTH_MONTH_DAY, limit);
+    }
+
+    @Override
+    public <S extends Client> S save(S client) {
+        if (client.getId() == null) {
+            insert(client);
+        } else {
+            update(client);
+        }
+        return client;
+    }
+
+    @Override
+    public void delete(Client client) {
+        if (shardOfId(client.getId()).delete(client.getId())) {
+            directory.release(Key.TAX_ID, client.getTaxId(), client.getId());
+            directory.release(Key.EMAIL, client.getEmail(), client.getId());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (ClientShard shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close shard: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a read-only query on each shard in turn, feeding every row to {@code handler};
+     * for aggregates that can be summed across shards.
+     */
+    public void queryEachShard(String sql, RowCallbackHandler handler) {
+        for (ClientShard shard : shards) {
+            if (!(shard instanceof JdbcClientShard jdbcShard)) {
+                throw new IllegalStateException("Shard does not support SQL queries: " + shard);
+            }
+            jdbcShard.query(sql, handler);
+        }
+    }
+
+    List<? extends ClientShard> shards() {
+        return shards;
+    }
+
+    /**
+     * Runs {@code query} on every shard in parallel and merges the partial results,
+     * each already sorted by {@code order}, keeping at most {@code limit} rows.
+     */
+    List<Client> scatterGather(Function<ClientShard, List<Client>> query, Comparator<Client> order, int limit) {
+        List<CompletableFuture<List<Client>>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+                .toList();
+
+        long deadline = System.nanoTime() + queryTimeoutNanos;
+        List<List<Client>> partials = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<List<Client>> future : futures) {
+                partials.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            // Cancelling does not interrupt a running JDBC call; the shards' statement
+            // timeout is what frees their threads.
+            futures.forEach(f -> f.cancel(true));
+            throw new QueryTimeoutException("Shard query did not complete within the configured timeout");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        }
+        return merge(partials, order, limit);
+    }
+
+    static List<Client> merge(List<List<Client>> sortedPartials, Comparator<Client> order, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> order.compare(a.current(), b.current()));
+        int total = 0;
+        for (List<Client> partial : sortedPartials) {
+            total += partial.size();
+            if (!partial.isEmpty()) {
+                heads.add(new Cursor(partial));
+            }
+        }
+
+        List<Client> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private void insert(Client client) {
+        int bucket = shardMap.bucketOfTaxId(client.getTaxId());
+        long id = shardMap.encodeId(directory.nextSequence(), bucket);
+
+        claim(Key.TAX_ID, client.getTaxId(), id);
+        try {
+            claim(Key.EMAIL, client.getEmail(), id);
+        } catch (RuntimeException e) {
+            directory.release(Key.TAX_ID, client.getTaxId(), id);
+            throw e;
+        }
+
+        LocalDateTime now = now();
+        client.setId(id);
+        client.setCreatedAt(now);
+        client.setUpdatedAt(now);
+        try {
+            shards.get(shardMap.shardOfBucket(bucket)).insert(client);
+        } catch (RuntimeException e) {
+            client.setId(null);
+            directory.release(Key.TAX_ID, client.getTaxId(), id);
+            directory.release(Key.EMAIL, client.getEmail(), id);
+            throw e;
+        }
+    }
+
+    private void update(Client client) {
+        long id = client.getId();
+        ClientShard shard = shardOfId(id);
+        Client current = shard.findById(id).orElseThrow(() -> ResourceNotFoundException.client(id));
+
+        boolean taxIdChanged = !Objects.equals(current.getTaxId(), client.getTaxId());
+        boolean emailChanged = !Objects.equals(current.getEmail(), client.getEmail());
+        if (taxIdChanged) {
+            claim(Key.TAX_ID, client.getTaxId(), id);
+        }
+        try {
+            if (emailChanged) {
+                claim(Key.EMAIL, client.getEmail(), id);
+            }
+            client.setUpdatedAt(now());
+            shard.update(client);
+        } catch (RuntimeException e) {
+            if (taxIdChanged) {
+                directory.release(Key.TAX_ID, client.getTaxId(), id);
+            }
+            if (emailChanged) {
+                directory.release(Key.EMAIL, client.getEmail(), id);
+            }
+            throw e;
+        }
+
+        if (taxIdChanged) {
+            directory.release(Key.TAX_ID, current.getTaxId(), id);
+        }
+        if (emailChanged) {
+            directory.release(Key.EMAIL, current.getEmail(), id);
+        }
+    }
+
+    private void claim(Key key, String value, long id) {
+        if (!directory.claim(key, value, id)) {
+            throw new DataIntegrityViolationException("Another client already uses " + key + " " + value);
+        }
+    }
+
+    private ClientShard shardOfId(long id) {
+        return shards.get(shardMap.shardOfId(id));
+    }
+
+    private static LocalDateTime now() {
+        // PostgreSQL timestamps have microsecond precision.
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static final class Cursor {
+
+        private final List<Client> rows;
+        private int position;
+
+        private Cursor(List<Client> rows) {
+            this.rows = rows;
+        }
+
+        Client current() {
+            return rows.get(position);
+        }
+
+        boolean advance() {
+            return ++position < rows.size();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.challenge.clients.sharding;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replaces the JPA-backed store with {@link ShardedClientStore} when
+ * {@code clients.sharding.enabled} is set. The directory table lives in the primary
+ * {@code spring.datasource}; each entry of {@code clients.sharding.shards} is a
+ * separate database.
+ * <p>
+ * The primary database only holds the directory, so Hibernate's schema handling is
+ * turned off: validating the {@code clientes} entity against it would fail at startup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clients.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer shardedSchemaManagement() {
+        return hibernateProperties -> {
+            Object previous = hibernateProperties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            if (previous != null && !"none".equals(previous)) {
+                log.info("Ignoring spring.jpa.hibernate.ddl-auto={} with sharding enabled; "
+                        + "the primary database only holds the directory", previous);
+            }
+        };
+    }
+
+    @Bean
+    public ShardMap shardMap(ShardingProperties properties) {
+        return ShardMap.parse(properties.getBucketBits(), properties.getShards().stream()
+                .map(ShardingProperties.Shard::getBuckets)
+                .toList());
+    }
+
+    @Bean
+    @Primary
+    public ShardedClientStore shardedClientStore(ShardingProperties properties, ShardMap shardMap,
+                                                 JdbcTemplate jdbcTemplate,
+                                                 PlatformTransactionManager transactionManager) {
+        List<JdbcClientShard> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            shards.add(new JdbcClientShard(i, properties.getShards().get(i), properties.getDataSourceProperties(),
+                    properties.getQueryTimeout()));
+        }
+        AtomicInteger threads = new AtomicInteger();
+        return new ShardedClientStore(shardMap, shards, new JdbcClientDirectory(jdbcTemplate, transactionManager),
+                Executors.newFixedThreadPool(properties.getQueryThreads(), r -> {
+                    Thread thread = new Thread(r, "clients-shard-query-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                properties.getQueryTimeout());
+    }
+
+    /**
+     * Offline resharding: start with the {@code reshard} profile and every shard's
+     * {@code target-buckets} set. The application exits when the run completes.
+     */
+    @Bean
+    @Profile("reshard")
+    public ApplicationRunner reshardingRunner(ShardingProperties properties, ShardMap shardMap,
+                                              ShardedClientStore store, ApplicationContext context) {
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            if (properties.getShards().get(i).getTargetBuckets() == null) {
+                throw new IllegalStateException("clients.sharding.shards[" + i + "].target-buckets is required "
+                        + "by the reshard profile");
+            }
+        }
+        return args -> {
+            ShardMap target = ShardMap.parse(properties.getBucketBits(), properties.getShards().stream()
+                    .map(ShardingProperties.Shard::getTargetBuckets)
+                    .toList());
+            long moved = new ReshardingTool(shardMap, target, store.shards(), properties.getReshardBatchSize()).run();
+            log.info("Resharding moved {} rows; set each shard's buckets to its target-buckets before restarting",
+                    moved);
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.challenge.clients.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "clients.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Number of id bits that encode the bucket. Fixed for the lifetime of the data:
+     * changing it invalidates every existing id.
+     */
+    private int bucketBits = 10;
+
+    private int queryThreads = 8;
+
+    private Duration queryTimeout = Duration.ofSeconds(5);
+
+    private int reshardBatchSize = 1_000;
+
+    /**
+     * pgjdbc properties applied to every shard pool, as
+     * {@code spring.datasource.hikari.data-source-properties} is to the main one.
+     */
+    private Properties dataSourceProperties = new Properties();
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        /**
+         * Buckets owned by this shard, e.g. {@code 0-511} or {@code 0-255,768-1023}.
+         */
+        private String buckets;
+
+        /**
+         * Buckets this shard should own after the next offline resharding run.
+         */
+        private String targetBuckets;
+    }
+}
@@ -0,0 +1,80 @@
+package com.challenge.clients.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL issued while handling each request and reports it in a
+ * {@code Server-Timing} header. Responses with a body get the header from
+ * {@link Advice} just before the body is written (after that the headers are sent);
+ * body-less responses such as {@code 204} get it once the handler returns. Rows are
+ * reported only with {@code clients.sql.count-rows}.
+ */
+@Component
+@ConditionalOnProperty(name = "clients.sql.instrumentation.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final boolean countRows;
+
+    public ServerTimingFilter(@Value("${clients.sql.count-rows:false}") boolean countRows) {
+        this.countRows = countRows;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            chain.doFilter(request, response);
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, statistics.serverTiming(countRows));
+            }
+        } finally {
+            SqlStatistics.stop();
+        }
+    }
+
+    @ControllerAdvice
+    @ConditionalOnProperty(name = "clients.sql.instrumentation.enabled", havingValue = "true")
+    static class Advice implements ResponseBodyAdvice<Object> {
+
+        private final boolean countRows;
+
+        Advice(@Value("${clients.sql.count-rows:false}") boolean countRows) {
+            this.countRows = countRows;
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics != null) {
+                response.getHeaders().set(SERVER_TIMING, statistics.serverTiming(countRows));
+            }
+            return body;
+        }
+    }
+}
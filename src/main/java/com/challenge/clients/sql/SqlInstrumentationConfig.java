@@ -0,0 +1,49 @@
+package com.challenge.clients.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} bean in a datasource-proxy that counts statements, rows
+ * and time per thread ({@link SqlStatistics}) and logs slow queries. Off unless
+ * {@code clients.sql.instrumentation.enabled: true}: the proxy adds work to every
+ * statement and the {@code Server-Timing} header exposes query counts to any client.
+ * <p>
+ * Rows read through a {@code ResultSet} are only counted with
+ * {@code clients.sql.count-rows: true}: that wraps every result set in a reflective proxy,
+ * which costs a call per row on all queries, including the replica reload and the dedup
+ * scan. Without it only rows changed by updates are counted. Shard pools are created by
+ * {@code ShardingConfig}, not as beans, so their SQL is not instrumented.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clients.sql.instrumentation.enabled", havingValue = "true")
+public class SqlInstrumentationConfig {
+
+    @Bean
+    static BeanPostProcessor sqlInstrumentingPostProcessor(Environment environment) {
+        SqlStatisticsListener listener =
+                new SqlStatisticsListener(environment.getProperty("clients.sql.slow-query-ms", Long.class, 200L));
+        boolean countRows = environment.getProperty("clients.sql.count-rows", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener);
+                    if (countRows) {
+                        builder.methodListener(listener).proxyResultSet();
+                    }
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.challenge.clients.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Statements, rows and database time accumulated by the current thread since
+ * {@link #start()}. Work done on other threads (background jobs) and SQL sent to shard
+ * pools is not included. Rows read are only counted with {@code clients.sql.count-rows}.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statementLog;
+    private int statements;
+    private long rows;
+    private long elapsedMs;
+
+    private SqlStatistics(boolean logStatements) {
+        this.statementLog = logStatements ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Starts counting on the current thread, discarding anything counted before.
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics(false);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Like {@link #start()}, also keeping the SQL of every statement.
+     */
+    public static SqlStatistics startLogging() {
+        SqlStatistics statistics = new SqlStatistics(true);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of the current thread, or {@code null} if none were started.
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public long elapsedMs() {
+        return elapsedMs;
+    }
+
+    public List<String> statementLog() {
+        return statementLog == null ? List.of() : Collections.unmodifiableList(statementLog);
+    }
+
+    /**
+     * Value for a {@code Server-Timing} header, e.g.
+     * {@code db;dur=3;desc="2 statements, 1 rows"}. Pass {@code includeRows = false} when
+     * rows read are not counted, so the header does not report a partial figure.
+     */
+    public String serverTiming(boolean includeRows) {
+        return includeRows
+                ? String.format(Locale.ROOT, "db;dur=%d;desc=\"%d statements, %d rows\"", elapsedMs, statements, rows)
+                : String.format(Locale.ROOT, "db;dur=%d;desc=\"%d statements\"", elapsedMs, statements);
+    }
+
+    void recordStatement(String sql, long elapsedMs, long affectedRows) {
+        statements++;
+        this.elapsedMs += elapsedMs;
+        rows += affectedRows;
+        if (statementLog != null) {
+            statementLog.add(sql);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+}
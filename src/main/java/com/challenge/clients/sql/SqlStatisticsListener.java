@@ -0,0 +1,110 @@
+package com.challenge.clients.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Feeds {@link SqlStatistics} from a datasource-proxy and logs statements slower than
+ * {@code clients.sql.slow-query-ms}. Slow query logs show a fingerprint of the bind
+ * parameters (type and hash of each value) rather than the values, which are client
+ * personal data, so repeated executions with the same arguments can still be told apart.
+ */
+class SqlStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsListener.class);
+
+    private static final Comparator<ParameterSetOperation> BY_INDEX =
+            Comparator.comparingInt(op -> op.getArgs()[0] instanceof Integer index ? index : 0);
+
+    private final long slowQueryMs;
+
+    SqlStatisticsListener(long slowQueryMs) {
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(sql(queryInfoList), execInfo.getElapsedTime(), affectedRows(execInfo.getResult()));
+        }
+        if (execInfo.getElapsedTime() >= slowQueryMs && log.isWarnEnabled()) {
+            log.warn("Slow query ({} ms, {}): {} params={}", execInfo.getElapsedTime(),
+                    execInfo.getDataSourceName(), sql(queryInfoList), fingerprint(queryInfoList));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics != null) {
+                statistics.recordRow();
+            }
+        }
+    }
+
+    static String fingerprint(List<QueryInfo> queryInfoList) {
+        StringJoiner batches = new StringJoiner(" | ");
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+                StringJoiner values = new StringJoiner(", ", "[", "]");
+                parameters.stream()
+                        .sorted(BY_INDEX)
+                        .forEach(op -> values.add(fingerprint(op)));
+                batches.add(values.toString());
+            }
+        }
+        return batches.toString();
+    }
+
+    private static String fingerprint(ParameterSetOperation op) {
+        if ("setNull".equals(op.getMethod().getName()) || op.getArgs().length < 2 || op.getArgs()[1] == null) {
+            return "null";
+        }
+        Object value = op.getArgs()[1];
+        return value.getClass().getSimpleName() + "#" + Integer.toHexString(value.hashCode());
+    }
+
+    private static String sql(List<QueryInfo> queryInfoList) {
+        return queryInfoList.size() == 1
+                ? queryInfoList.get(0).getQuery()
+                : queryInfoList.stream().map(QueryInfo::getQuery).reduce((a, b) -> a + "; " + b).orElse("");
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        // Rows read through a ResultSet are counted as they are fetched, if clients.sql.count-rows is on.
+        return 0;
+    }
+}
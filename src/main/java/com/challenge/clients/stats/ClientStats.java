@@ -0,0 +1,260 @@
+package com.challenge.clients.stats;
+
+import com.challenge.clients.dto.ClientStatsDTO;
+import com.challenge.clients.model.Client;
+import com.challenge.clients.exception.StatsNotReadyException;
+import com.challenge.clients.service.AfterCommit;
+import com.challenge.clients.sharding.ShardedClientStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Client counts by company, birth decade, tax ID prefix and creation month, kept up to
+ * date by the write paths so {@code GET /api/clients/stats} never touches the table.
+ * <p>
+ * Right after startup and then every {@code clients.stats.reconcile-interval-ms} the
+ * counters are rebuilt with a single grouped scan, run on every shard and summed when
+ * sharding is enabled. Changes committed while that scan runs are replayed on top of its result; the
+ * rare change that lands on both sides is corrected by the next reconciliation. Until the
+ * first scan succeeds the counters only hold the changes made since startup, so
+ * {@link #encoded()} refuses to serve them.
+ */
+@Component
+public class ClientStats {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientStats.class);
+
+    static final String UNKNOWN = "unknown";
+
+    private static final String DECADE = "(EXTRACT(YEAR FROM fecha_nacimiento)::int / 10) * 10";
+    private static final String PREFIX = "LEFT(cuit, 2)";
+    private static final String MONTH = "COALESCE(TO_CHAR(fecha_creacion, 'YYYY-MM'), '" + UNKNOWN + "')";
+
+    // Each grouping set leaves the other columns NULL; the empty set is the total.
+    static final String RECONCILE_SQL = "SELECT razon_social AS company, " + DECADE + " AS decade, "
+            + PREFIX + " AS prefix, " + MONTH + " AS month, COUNT(*) AS total FROM clientes "
+            + "GROUP BY GROUPING SETS ((razon_social), (" + DECADE + "), (" + PREFIX + "), (" + MONTH + "), ())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardedClientStore> shardedStore;
+    private final ObjectMapper objectMapper;
+
+    private Counts counts = new Counts();
+    private List<Delta> committedDuringReconcile;
+    private LocalDateTime reconciledAt;
+    private volatile byte[] encoded;
+
+    public ClientStats(JdbcTemplate jdbcTemplate, ObjectProvider<ShardedClientStore> shardedStore,
+                       ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardedStore = shardedStore;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The values a client contributes to each aggregate.
+     */
+    public record Dimensions(String company, String birthDecade, String taxIdPrefix, String creationMonth) {
+
+        public static Dimensions of(Client client) {
+            return new Dimensions(
+                    client.getCompanyName(),
+                    client.getBirthDate() == null ? UNKNOWN : Integer.toString(client.getBirthDate().getYear() / 10 * 10),
+                    client.getTaxId().length() < 2 ? client.getTaxId() : client.getTaxId().substring(0, 2),
+                    client.getCreatedAt() == null ? UNKNOWN : YearMonth.from(client.getCreatedAt()).toString());
+        }
+    }
+
+    /**
+     * Moves a client from {@code before} to {@code after} once the current transaction
+     * commits. Pass {@code null} for {@code before} on create and for {@code after} on
+     * delete.
+     */
+    public void recordAfterCommit(Dimensions before, Dimensions after) {
+        if (!Objects.equals(before, after)) {
+            AfterCommit.run(() -> apply(new Delta(before, after)));
+        }
+    }
+
+    /**
+     * Returns the current aggregates as UTF-8 JSON. The encoding is rebuilt only after
+     * the counters change.
+     *
+     * @throws StatsNotReadyException before the first successful reconciliation
+     */
+    public byte[] encoded() {
+        byte[] current = encoded;
+        if (current == null) {
+            current = encode();
+        }
+        return current;
+    }
+
+    public synchronized ClientStatsDTO snapshot() {
+        return ClientStatsDTO.builder()
+                .total(counts.total)
+                .byCompany(new TreeMap<>(counts.byCompany))
+                .byBirthDecade(new TreeMap<>(counts.byBirthDecade))
+                .byTaxIdPrefix(new TreeMap<>(counts.byTaxIdPrefix))
+                .byCreationMonth(new TreeMap<>(counts.byCreationMonth))
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Runs on the scheduler thread, the first time as soon as the scheduler starts, so a
+     * slow scan never holds up startup; {@link #encoded()} answers 503 until it completes.
+     */
+    @Scheduled(fixedDelayString = "${clients.stats.reconcile-interval-ms:600000}", initialDelay = 0)
+    public void reconcile() {
+        synchronized (this) {
+            if (committedDuringReconcile != null) {
+                return;
+            }
+            committedDuringReconcile = new ArrayList<>();
+        }
+        Counts loaded = new Counts();
+        RowCallbackHandler handler = rs -> loaded.load(rs.getString("company"), rs.getString("decade"),
+                rs.getString("prefix"), rs.getString("month"), rs.getLong("total"));
+        try {
+            // With sharding the primary database has no clientes table.
+            ShardedClientStore sharded = shardedStore.getIfAvailable();
+            if (sharded != null) {
+                sharded.queryEachShard(RECONCILE_SQL, handler);
+            } else {
+                jdbcTemplate.query(RECONCILE_SQL, handler);
+            }
+        } catch (DataAccessException | IllegalStateException e) {
+            synchronized (this) {
+                committedDuringReconcile = null;
+            }
+            log.warn("Client stats reconciliation failed: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            committedDuringReconcile.forEach(loaded::apply);
+            committedDuringReconcile = null;
+            long drift = counts.distanceTo(loaded);
+            if (drift > 0 && reconciledAt != null) {
+                log.warn("Client stats drifted by {} from the table, counters replaced", drift);
+            }
+            counts = loaded;
+            reconciledAt = LocalDateTime.now();
+            encoded = null;
+        }
+    }
+
+    synchronized void apply(Delta delta) {
+        counts.apply(delta);
+        if (committedDuringReconcile != null) {
+            committedDuringReconcile.add(delta);
+        }
+        encoded = null;
+    }
+
+    private synchronized byte[] encode() {
+        if (reconciledAt == null) {
+            throw new StatsNotReadyException("Client statistics are not available until the first reconciliation");
+        }
+        if (encoded == null) {
+            try {
+                encoded = objectMapper.writeValueAsBytes(snapshot());
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return encoded;
+    }
+
+    record Delta(Dimensions before, Dimensions after) {
+    }
+
+    private static final class Counts {
+
+        private long total;
+        private final Map<String, Long> byCompany = new HashMap<>();
+        private final Map<String, Long> byBirthDecade = new HashMap<>();
+        private final Map<String, Long> byTaxIdPrefix = new HashMap<>();
+        private final Map<String, Long> byCreationMonth = new HashMap<>();
+
+        /**
+         * Adds one grouping-set row; rows for the same group from several shards add up.
+         */
+        void load(String company, String decade, String prefix, String month, long count) {
+            if (company != null) {
+                byCompany.merge(company, count, Long::sum);
+            } else if (decade != null) {
+                byBirthDecade.merge(decade, count, Long::sum);
+            } else if (prefix != null) {
+                byTaxIdPrefix.merge(prefix, count, Long::sum);
+            } else if (month != null) {
+                byCreationMonth.merge(month, count, Long::sum);
+            } else {
+                total += count;
+            }
+        }
+
+        void apply(Delta delta) {
+            if (delta.before() != null) {
+                add(delta.before(), -1);
+            }
+            if (delta.after() != null) {
+                add(delta.after(), 1);
+            }
+        }
+
+        long distanceTo(Counts other) {
+            return Math.abs(total - other.total)
+                    + distance(byCompany, other.byCompany)
+                    + distance(byBirthDecade, other.byBirthDecade)
+                    + distance(byTaxIdPrefix, other.byTaxIdPrefix)
+                    + distance(byCreationMonth, other.byCreationMonth);
+        }
+
+        private void add(Dimensions dimensions, long delta) {
+            total += delta;
+            add(byCompany, dimensions.company(), delta);
+            add(byBirthDecade, dimensions.birthDecade(), delta);
+            add(byTaxIdPrefix, dimensions.taxIdPrefix(), delta);
+            add(byCreationMonth, dimensions.creationMonth(), delta);
+        }
+
+        private static void add(Map<String, Long> counts, String key, long delta) {
+            counts.compute(key, (k, current) -> {
+                long updated = (current == null ? 0 : current) + delta;
+                return updated == 0 ? null : updated;
+            });
+        }
+
+        private static long distance(Map<String, Long> a, Map<String, Long> b) {
+            long distance = 0;
+            for (Map.Entry<String, Long> entry : a.entrySet()) {
+                distance += Math.abs(entry.getValue() - b.getOrDefault(entry.getKey(), 0L));
+            }
+            for (Map.Entry<String, Long> entry : b.entrySet()) {
+                if (!a.containsKey(entry.getKey())) {
+                    distance += Math.abs(entry.getValue());
+                }
+            }
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.challenge.clients.writebehind;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A phone number and email change accepted by {@link ContactUpdateBuffer}. The names are
+ * kept only to invalidate search cache entries once the update is flushed.
+ *
+ * @param sequence   position in the write-ahead log, returned to the caller
+ * @param acceptedAt written to {@code fecha_modificacion}; the flush skips rows modified
+ *                   after this instant
+ * @param supersedes earlier updates of the same client that were still pending when this
+ *                   one was accepted; they are never applied and share its outcome
+ */
+public record ContactUpdate(long sequence,
+                            long clientId,
+                            String firstName,
+                            String lastName,
+                            String phoneNumber,
+                            String email,
+                            LocalDateTime acceptedAt,
+                            List<Long> supersedes) {
+
+    public ContactUpdate {
+        supersedes = supersedes == null ? List.of() : List.copyOf(supersedes);
+    }
+}
@@ -0,0 +1,421 @@
+package com.challenge.clients.writebehind;
+
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.dto.ContactUpdateStatusDTO;
+import com.challenge.clients.dto.ContactUpdateStatusDTO.Status;
+import com.challenge.clients.exception.DuplicateResourceException;
+import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.repository.ClientStore;
+import com.challenge.clients.service.ClientServiceImpl;
+import com.challenge.clients.sharding.ShardedClientStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for phone number and email changes
+ * ({@code PUT /api/clients/{id}} with {@code Prefer: respond-async}).
+ * <p>
+ * Each accepted update is appended to a {@link WriteAheadLog} and acknowledged once it
+ * is on disk, then kept per client so a burst of updates to the same client collapses
+ * into its latest value. Updates are written to the database in one transaction per
+ * batch, every {@code clients.write-behind.flush-interval-ms} or as soon as
+ * {@code batch-size} clients are pending. Until then, reads of the client show the
+ * buffered values ({@link #overlay(ClientResponseDTO)}).
+ * <p>
+ * A flush never overwrites a row modified after the update was accepted (for example
+ * by a synchronous {@code PUT}): such updates, and those whose email is taken by then,
+ * are reported as {@code REJECTED} by {@link #status(long)}. Rejections are recorded in
+ * the log, so they are never replayed and are still reported after a restart. An update
+ * replaced by a later one for the same client before the flush reports the outcome of
+ * the update that replaced it.
+ * <p>
+ * The flush writes to {@code clientes} in the main database, so write-behind cannot be
+ * combined with {@code clients.sharding.enabled}; the application refuses to start.
+ */
+@Component
+@ConditionalOnProperty(name = "clients.write-behind.enabled", havingValue = "true")
+public class ContactUpdateBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactUpdateBuffer.class);
+
+    static final String UPDATE_SQL = "UPDATE clientes SET telefono_celular = ?, email = ?, fecha_modificacion = ? "
+            + "WHERE id = ? AND fecha_modificacion <= ?";
+    static final String CHANGED_AFTER_ACCEPT = "Client was modified or deleted after the update was accepted";
+
+    private final ClientServiceImpl clientService;
+    private final ClientStore clientStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteAheadLog wal;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private final Map<Long, ContactUpdate> pending = new ConcurrentHashMap<>();
+    private volatile long flushedThrough;
+    private volatile boolean closed;
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "clients-write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter flushed;
+    private final Counter rejected;
+
+    @Autowired
+    public ContactUpdateBuffer(ClientServiceImpl clientService,
+                               ClientStore clientStore,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${clients.write-behind.wal-path:data/write-behind.wal}") Path walPath,
+                               @Value("${clients.write-behind.batch-size:500}") int batchSize,
+                               @Value("${clients.write-behind.compact-bytes:67108864}") long compactBytes)
+            throws IOException {
+        this(clientService, clientStore, jdbcTemplate, transactionManager, meterRegistry,
+                new WriteAheadLog(walPath, objectMapper, compactBytes), batchSize);
+    }
+
+    ContactUpdateBuffer(ClientServiceImpl clientService,
+                        ClientStore clientStore,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        WriteAheadLog wal,
+                        int batchSize) {
+        if (clientStore instanceof ShardedClientStore) {
+            throw new IllegalStateException("clients.write-behind.enabled is not supported with clients.sharding.enabled");
+        }
+        this.clientService = clientService;
+        this.clientStore = clientStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.wal = wal;
+        for (ContactUpdate update : wal.recovered()) {
+            pending.put(update.clientId(), update);
+        }
+        this.flushedThrough = pending.values().stream()
+                .mapToLong(ContactUpdate::sequence).min().orElse(wal.lastSequence() + 1) - 1;
+
+        Gauge.builder("clients.write.behind.pending", pending, Map::size)
+                .description("Clients with a buffered contact update")
+                .register(meterRegistry);
+        this.flushed = updates(meterRegistry, "flushed");
+        this.rejected = updates(meterRegistry, "rejected");
+    }
+
+    /**
+     * Buffers the phone number and email of {@code request} and returns the sequence
+     * number once it is durable. Returns empty when the request changes any other
+     * field, in which case it must go through the synchronous update.
+     */
+    public Optional<Long> accept(Long id, ClientRequestDTO request) {
+        ClientResponseDTO current = overlay(clientService.findById(id));
+        if (!onlyContactChanges(current, request)) {
+            return Optional.empty();
+        }
+        if (!Objects.equals(current.getEmail(), request.getEmail())) {
+            checkEmailAvailable(id, request.getEmail());
+        }
+
+        LocalDateTime acceptedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ContactUpdate update;
+        synchronized (lock) {
+            ContactUpdate previous = pending.get(id);
+            List<Long> supersedes = new ArrayList<>();
+            if (previous != null) {
+                supersedes.addAll(previous.supersedes());
+                supersedes.add(previous.sequence());
+            }
+            try {
+                update = wal.append(sequence -> new ContactUpdate(sequence, id, current.getFirstName(),
+                        current.getLastName(), request.getPhoneNumber(), request.getEmail(), acceptedAt, supersedes));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the write-behind log", e);
+            }
+            pending.put(id, update);
+        }
+        try {
+            wal.awaitDurable(update.sequence());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync the write-behind log", e);
+        }
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+        log.debug("Buffered contact update {} for client id={}", update.sequence(), id);
+        return Optional.of(update.sequence());
+    }
+
+    public ContactUpdateStatusDTO status(long sequence) {
+        if (sequence < 1 || sequence > wal.lastSequence()) {
+            throw new ResourceNotFoundException("Contact update not found: " + sequence);
+        }
+        String error = wal.rejection(sequence);
+        Status status = error != null ? Status.REJECTED
+                : sequence > flushedThrough || isPending(sequence) ? Status.PENDING : Status.FLUSHED;
+        return ContactUpdateStatusDTO.builder()
+                .sequence(sequence)
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Returns {@code client} with its buffered phone number and email, if any, so callers
+     * read their own writes before the flush. Clients modified after the update was
+     * accepted are returned as they are.
+     */
+    public ClientResponseDTO overlay(ClientResponseDTO client) {
+        ContactUpdate update = pending.get(client.getId());
+        if (update == null
+                || (client.getUpdatedAt() != null && client.getUpdatedAt().isAfter(update.acceptedAt()))) {
+            return client;
+        }
+        return ClientResponseDTO.builder()
+                .id(client.getId())
+                .firstName(client.getFirstName())
+                .lastName(client.getLastName())
+                .companyName(client.getCompanyName())
+                .taxId(client.getTaxId())
+                .birthDate(client.getBirthDate())
+                .phoneNumber(update.phoneNumber())
+                .email(update.email())
+                .createdAt(client.getCreatedAt())
+                .updatedAt(update.acceptedAt())
+                .build();
+    }
+
+    public List<ClientResponseDTO> overlay(List<ClientResponseDTO> clients) {
+        return pending.isEmpty() ? clients : clients.stream().map(this::overlay).toList();
+    }
+
+    public boolean hasPending(Long clientId) {
+        return pending.containsKey(clientId);
+    }
+
+    /**
+     * Whether the update, or the one that replaced it, is still waiting for the flush.
+     */
+    private boolean isPending(long sequence) {
+        for (ContactUpdate update : pending.values()) {
+            if (update.sequence() == sequence || update.supersedes().contains(sequence)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${clients.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        List<ContactUpdate> batch;
+        do {
+            long durable = wal.durableSequence();
+            batch = pending.values().stream()
+                    .filter(update -> update.sequence() <= durable)
+                    .sorted(Comparator.comparingLong(ContactUpdate::sequence))
+                    .limit(batchSize)
+                    .toList();
+            if (!batch.isEmpty() && !write(batch)) {
+                break;
+            }
+            checkpoint();
+        } while (batch.size() == batchSize);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        flusher.shutdownNow();
+        flush();
+        closed = true;
+        wal.close();
+    }
+
+    /**
+     * Writes the batch in one transaction. If a row breaks a constraint the batch is
+     * retried row by row so only the offending updates are rejected; any other error
+     * leaves the batch pending for the next flush. Returns {@code false} when part of the
+     * batch is still pending, which ends the current flush: looping would pick the same
+     * updates again.
+     */
+    private boolean write(List<ContactUpdate> batch) {
+        try {
+            return applied(batch, transactionTemplate.execute(status -> update(batch)));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Write-behind batch of {} updates violates a constraint, retrying one by one", batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Write-behind flush of {} updates failed, will retry: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        for (ContactUpdate update : batch) {
+            try {
+                if (!applied(List.of(update), transactionTemplate.execute(status -> update(List.of(update))))) {
+                    return false;
+                }
+            } catch (DataIntegrityViolationException e) {
+                if (!reject(update, "Email " + update.email() + " is already in use")) {
+                    return false;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Write-behind flush of update {} failed, will retry: {}", update.sequence(), e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] update(List<ContactUpdate> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (ContactUpdate update : batch) {
+            Timestamp acceptedAt = Timestamp.valueOf(update.acceptedAt());
+            args.add(new Object[]{update.phoneNumber(), update.email(), acceptedAt, update.clientId(), acceptedAt});
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+    }
+
+    /**
+     * Returns {@code false} if a rejection could not be recorded and its update is still
+     * pending.
+     */
+    private boolean applied(List<ContactUpdate> batch, int[] counts) {
+        boolean settled = true;
+        List<Long> sequences = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ContactUpdate update = batch.get(i);
+            if (counts[i] == 0) {
+                settled &= reject(update, CHANGED_AFTER_ACCEPT);
+                continue;
+            }
+            sequences.add(update.sequence());
+        }
+        try {
+            wal.flushed(sequences);
+        } catch (IOException e) {
+            log.warn("Could not record flushed write-behind updates: {}", e.getMessage());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            ContactUpdate update = batch.get(i);
+            if (counts[i] != 0) {
+                clientService.refresh(update.clientId(), update.firstName(), update.lastName());
+                pending.remove(update.clientId(), update);
+                flushed.increment();
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Records the rejection of {@code update} and of the updates it replaced. An update
+     * replaced while it was being flushed is left alone: the replacement decides the
+     * outcome. If the rejection cannot be made durable the update stays pending, is tried
+     * again by the next flush, and {@code false} is returned.
+     */
+    private boolean reject(ContactUpdate update, String error) {
+        synchronized (lock) {
+            if (pending.get(update.clientId()) != update) {
+                return true;
+            }
+            List<Long> sequences = new ArrayList<>(update.supersedes());
+            sequences.add(update.sequence());
+            try {
+                wal.rejected(sequences, error);
+            } catch (IOException e) {
+                log.error("Could not record rejected write-behind update {}: {}", update.sequence(), e.getMessage());
+                return false;
+            }
+            pending.remove(update.clientId(), update);
+        }
+        log.warn("Rejected write-behind update {} for client id={}: {}", update.sequence(), update.clientId(), error);
+        rejected.increment();
+        return true;
+    }
+
+    private void checkpoint() {
+        synchronized (lock) {
+            long through = pending.values().stream()
+                    .mapToLong(ContactUpdate::sequence).min().orElse(wal.lastSequence() + 1) - 1;
+            try {
+                wal.checkpoint(through, pending.values());
+            } catch (IOException e) {
+                log.warn("Could not checkpoint the write-behind log: {}", e.getMessage());
+            }
+            flushedThrough = through;
+        }
+    }
+
+    private void checkEmailAvailable(Long id, String email) {
+        for (ContactUpdate update : pending.values()) {
+            if (update.clientId() != id && update.email().equals(email)) {
+                throw DuplicateResourceException.email(email);
+            }
+        }
+        // An owner with a buffered update is moving to another email (checked above), and
+        // its update has a lower sequence, so it is flushed first.
+        clientStore.findByEmail(email).ifPresent(owner -> {
+            if (!owner.getId().equals(id) && !pending.containsKey(owner.getId())) {
+                throw DuplicateResourceException.email(email);
+            }
+        });
+    }
+
+    private static boolean onlyContactChanges(ClientResponseDTO current, ClientRequestDTO request) {
+        return Objects.equals(current.getFirstName(), request.getFirstName())
+                && Objects.equals(current.getLastName(), request.getLastName())
+                && Objects.equals(current.getCompanyName(), request.getCompanyName())
+                && Objects.equals(current.getTaxId(), request.getTaxId())
+                && Objects.equals(current.getBirthDate(), request.getBirthDate());
+    }
+
+    private static Counter updates(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("clients.write.behind.updates")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
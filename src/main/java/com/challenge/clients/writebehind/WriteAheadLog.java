@@ -0,0 +1,287 @@
+package com.challenge.clients.writebehind;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * Append-only NDJSON file of accepted {@link ContactUpdate}s, one per line, plus
+ * {@code {"checkpoint":n}} lines recording that every update up to {@code n} reached the
+ * database, {@code {"flushed":[..]}} lines for updates applied above the checkpoint and
+ * {@code {"rejected":[..],"error":".."}} lines for updates that must never be applied.
+ * Flushed and rejected updates are skipped on recovery; rejections are kept across
+ * compactions so their outcome can still be reported after a restart.
+ * <p>
+ * Appends only write to the page cache; {@link #awaitDurable(long)} then forces the file
+ * once for every update written so far, so concurrent callers share a single fsync
+ * (group commit). Once the file exceeds {@code compactBytes} a checkpoint rewrites it
+ * with just the updates still pending. A line cut short by a crash was never
+ * acknowledged and is dropped on recovery.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final Comparator<ContactUpdate> BY_SEQUENCE = Comparator.comparingLong(ContactUpdate::sequence);
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final long compactBytes;
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private long lastSequence;
+    private long checkpoint;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private final Map<Long, String> rejections = new ConcurrentHashMap<>();
+    private final List<ContactUpdate> recovered;
+
+    WriteAheadLog(Path path, ObjectMapper objectMapper, long compactBytes) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.compactBytes = compactBytes;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.recovered = recover();
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.writtenSequence = lastSequence;
+        this.durableSequence = lastSequence;
+    }
+
+    /**
+     * Updates found after the last checkpoint when the log was opened, latest per client,
+     * in sequence order.
+     */
+    List<ContactUpdate> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Assigns the next sequence number, builds the update with it and writes it. The
+     * update is not durable until {@link #awaitDurable(long)} returns for its sequence.
+     */
+    synchronized ContactUpdate append(LongFunction<ContactUpdate> update) throws IOException {
+        ContactUpdate record = update.apply(lastSequence + 1);
+        write(channel, record);
+        lastSequence = record.sequence();
+        writtenSequence = lastSequence;
+        return record;
+    }
+
+    /**
+     * Records that the updates were applied. Not forced: if it is lost they are replayed,
+     * and the flush skips rows already at their {@code acceptedAt}.
+     */
+    synchronized void flushed(List<Long> sequences) throws IOException {
+        if (!sequences.isEmpty()) {
+            write(channel, new Flushed(sequences));
+        }
+    }
+
+    /**
+     * Records that the updates must never be applied and forces the log, so a restart
+     * cannot replay them.
+     */
+    synchronized void rejected(List<Long> sequences, String error) throws IOException {
+        write(channel, new Rejected(sequences, error));
+        synchronized (syncLock) {
+            long target = writtenSequence;
+            channel.force(false);
+            durableSequence = target;
+        }
+        for (Long sequence : sequences) {
+            rejections.put(sequence, error);
+        }
+    }
+
+    /**
+     * Returns why the update was rejected, or {@code null} if it was not.
+     */
+    String rejection(long sequence) {
+        return rejections.get(sequence);
+    }
+
+    void awaitDurable(long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long target = writtenSequence;
+            channel.force(false);
+            durableSequence = target;
+        }
+    }
+
+    /**
+     * Records that every update up to {@code through} is in the database. {@code pending}
+     * must hold every update after it that still has to be applied; it is what survives
+     * a compaction.
+     */
+    synchronized void checkpoint(long through, Collection<ContactUpdate> pending) throws IOException {
+        if (through <= checkpoint) {
+            return;
+        }
+        checkpoint = through;
+        if (channel.size() < compactBytes) {
+            // Not forced: losing it only replays updates already applied, which is idempotent.
+            write(channel, new Checkpoint(through));
+            return;
+        }
+        synchronized (syncLock) {
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(out, new Checkpoint(through));
+                Map<String, List<Long>> byError = new LinkedHashMap<>();
+                rejections.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .forEach(e -> byError.computeIfAbsent(e.getValue(), k -> new ArrayList<>()).add(e.getKey()));
+                for (Map.Entry<String, List<Long>> rejected : byError.entrySet()) {
+                    write(out, new Rejected(rejected.getValue(), rejected.getKey()));
+                }
+                for (ContactUpdate update : pending.stream().sorted(BY_SEQUENCE).toList()) {
+                    write(out, update);
+                }
+                out.force(false);
+            }
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            durableSequence = writtenSequence;
+        }
+        log.info("Compacted write-behind log through sequence {} ({} pending updates)", through, pending.size());
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    long durableSequence() {
+        return durableSequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        synchronized (syncLock) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private void write(FileChannel target, Object record) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(record);
+        ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (line.hasRemaining()) {
+            target.write(line);
+        }
+    }
+
+    private List<ContactUpdate> recover() throws IOException {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        byte[] content = Files.readAllBytes(path);
+        Map<Long, ContactUpdate> latest = new HashMap<>();
+        Set<Long> done = new HashSet<>();
+        int start = 0;
+        for (int end = indexOf(content, start); end >= 0; end = indexOf(content, start)) {
+            JsonNode node = parse(content, start, end);
+            start = end + 1;
+            if (node == null) {
+                continue;
+            }
+            if (node.has("checkpoint")) {
+                checkpoint = Math.max(checkpoint, node.get("checkpoint").asLong());
+            } else if (node.has("flushed")) {
+                node.get("flushed").forEach(sequence -> done.add(sequence.asLong()));
+            } else if (node.has("rejected")) {
+                String error = node.path("error").asText(null);
+                node.get("rejected").forEach(sequence -> {
+                    done.add(sequence.asLong());
+                    rejections.put(sequence.asLong(), error);
+                });
+            } else {
+                ContactUpdate update = objectMapper.treeToValue(node, ContactUpdate.class);
+                latest.merge(update.clientId(), update, (a, b) -> b.sequence() > a.sequence() ? b : a);
+                lastSequence = Math.max(lastSequence, update.sequence());
+            }
+        }
+        lastSequence = Math.max(lastSequence, checkpoint);
+        if (start < content.length) {
+            log.warn("Dropping {} bytes of an incomplete write-behind log record", content.length - start);
+            try (FileChannel truncate = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                truncate.truncate(start);
+                truncate.force(false);
+            }
+        }
+
+        List<ContactUpdate> pending = new ArrayList<>();
+        for (ContactUpdate update : latest.values()) {
+            if (update.sequence() > checkpoint && !done.contains(update.sequence())) {
+                pending.add(update);
+            }
+        }
+        pending.sort(BY_SEQUENCE);
+        log.info("Recovered {} pending write-behind updates (checkpoint {}, last sequence {}, {} rejected)",
+                pending.size(), checkpoint, lastSequence, rejections.size());
+        return List.copyOf(pending);
+    }
+
+    /**
+     * A line left half-written by a failed append is followed by the next record on the
+     * same line; neither was acknowledged, so it is skipped.
+     */
+    private JsonNode parse(byte[] content, int start, int end) {
+        try {
+            return objectMapper.readTree(content, start, end - start);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable write-behind log line at offset {}", start);
+            return null;
+        }
+    }
+
+    private static int indexOf(byte[] content, int from) {
+        for (int i = from; i < content.length; i++) {
+            if (content[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    record Checkpoint(long checkpoint) {
+    }
+
+    record Flushed(List<Long> flushed) {
+    }
+
+    record Rejected(List<Long> rejected, String error) {
+    }
+}
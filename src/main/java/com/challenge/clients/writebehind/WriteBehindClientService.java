@@ -0,0 +1,80 @@
+package com.challenge.clients.writebehind;
+
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.service.ClientService;
+import com.challenge.clients.service.ClientServiceImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link ClientService} that shows buffered contact updates on every read, so a caller
+ * that got a {@code 202} reads its own write before {@link ContactUpdateBuffer} flushes it.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "clients.write-behind.enabled", havingValue = "true")
+public class WriteBehindClientService implements ClientService {
+
+    private final ClientServiceImpl delegate;
+    private final ContactUpdateBuffer buffer;
+
+    public WriteBehindClientService(ClientServiceImpl delegate, ContactUpdateBuffer buffer) {
+        this.delegate = delegate;
+        this.buffer = buffer;
+    }
+
+    @Override
+    public List<ClientResponseDTO> findAll() {
+        return buffer.overlay(delegate.findAll());
+    }
+
+    @Override
+    public ClientResponseDTO findById(Long id) {
+        return buffer.overlay(delegate.findById(id));
+    }
+
+    /**
+     * Empty while an update of the client is buffered: the stored version does not
+     * describe what {@link #findById(Long)} returns.
+     */
+    @Override
+    public Optional<LocalDateTime> findVersion(Long id) {
+        return buffer.hasPending(id) ? Optional.empty() : delegate.findVersion(id);
+    }
+
+    @Override
+    public List<ClientResponseDTO> searchByName(String name) {
+        return buffer.overlay(delegate.searchByName(name));
+    }
+
+    @Override
+    public ClientBirthdayPageDTO findUpcomingBirthdays(int days, String cursor, int size) {
+        ClientBirthdayPageDTO page = delegate.findUpcomingBirthdays(days, cursor, size);
+        return ClientBirthdayPageDTO.builder()
+                .clients(buffer.overlay(page.getClients()))
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+
+    @Override
+    public ClientResponseDTO create(ClientRequestDTO request) {
+        return delegate.create(request);
+    }
+
+    @Override
+    public ClientResponseDTO update(Long id, ClientRequestDTO request) {
+        return delegate.update(id, request);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+}
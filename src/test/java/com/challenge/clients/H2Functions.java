@@ -0,0 +1,26 @@
+package com.challenge.clients;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * H2 versions of the PL/pgSQL functions in {@code schema.sql}, registered as aliases by
+ * {@code h2/schema.sql}. They run on H2's own connection, not through the application's
+ * {@code DataSource}, so the statement counters see only the calling query.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    public static ResultSet searchClientsByName(Connection connection, String name) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(
+                "SELECT * FROM clientes WHERE nombre ILIKE ? OR apellido ILIKE ?");
+        String pattern = "%" + name + "%";
+        statement.setString(1, pattern);
+        statement.setString(2, pattern);
+        return statement.executeQuery();
+    }
+}
@@ -0,0 +1,23 @@
+package com.challenge.clients;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full application against in-memory H2 ({@code application-h2.yml}). Tests annotated
+ * with it have identical configuration, so they share one cached application context;
+ * add properties to the profile rather than to a single test.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+public @interface H2SpringBootTest {
+}
@@ -0,0 +1,148 @@
+package com.challenge.clients.benchmark;
+
+import com.challenge.clients.birthdays.BirthdayWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old "export everything and filter by month/day in memory" approach with
+ * keyset pages over the {@code (birth_month_day, id)} index, for a window that crosses
+ * the year end. Needs a PostgreSQL database seeded with
+ * {@code src/test/resources/benchmark/birthdays-10m.sql}; connection settings come from
+ * {@code -Dbenchmark.db.url}, {@code -Dbenchmark.db.user} and
+ * {@code -Dbenchmark.db.password}. Run with
+ * {@code mvn -P benchmark test -DskipTests -Dbenchmark=BirthdayQueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BirthdayQueryBenchmark {
+
+    private static final String PAGE = "SELECT * FROM clientes WHERE birth_month_day BETWEEN ? AND ? "
+            + "AND (birth_month_day, id) > (?, ?) ORDER BY birth_month_day, id LIMIT ?";
+
+    @Param({"7", "30"})
+    public int days;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private Connection connection;
+    private BirthdayWindow window;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5433/clients_db"),
+                System.getProperty("benchmark.db.user", "postgres"),
+                System.getProperty("benchmark.db.password", "postgres"));
+        window = BirthdayWindow.of(LocalDate.of(2026, 12, 20), days);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * What the dashboards did before: read every row and keep those in the window.
+     */
+    @Benchmark
+    public long fullExportAndFilter() throws SQLException {
+        connection.setAutoCommit(false);
+        long matches = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(10_000);
+            try (ResultSet rs = statement.executeQuery("SELECT * FROM clientes")) {
+                while (rs.next()) {
+                    int monthDay = BirthdayWindow.monthDay(rs.getObject("fecha_nacimiento", LocalDate.class));
+                    if (window.segments().stream().anyMatch(s -> monthDay >= s.from() && monthDay <= s.to())) {
+                        matches++;
+                    }
+                }
+            }
+        } finally {
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public long firstPage() throws SQLException {
+        BirthdayWindow.Segment first = window.segments().get(0);
+        return page(first, 0, 0, pageSize);
+    }
+
+    /**
+     * Walks the whole window one keyset page at a time, as the export job does.
+     */
+    @Benchmark
+    public long wholeWindow() throws SQLException {
+        long rows = 0;
+        for (BirthdayWindow.Segment segment : window.segments()) {
+            int afterMonthDay = 0;
+            long afterId = 0;
+            while (true) {
+                try (PreparedStatement ps = prepare(segment, afterMonthDay, afterId, 1_000);
+                     ResultSet rs = ps.executeQuery()) {
+                    int fetched = 0;
+                    while (rs.next()) {
+                        afterMonthDay = rs.getInt("birth_month_day");
+                        afterId = rs.getLong("id");
+                        fetched++;
+                    }
+                    rows += fetched;
+                    if (fetched < 1_000) {
+                        break;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long page(BirthdayWindow.Segment segment, int afterMonthDay, long afterId, int limit) throws SQLException {
+        long rows = 0;
+        try (PreparedStatement ps = prepare(segment, afterMonthDay, afterId, limit);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private PreparedStatement prepare(BirthdayWindow.Segment segment, int afterMonthDay, long afterId, int limit)
+            throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(PAGE);
+        ps.setInt(1, segment.from());
+        ps.setInt(2, segment.to());
+        ps.setInt(3, afterMonthDay);
+        ps.setLong(4, afterId);
+        ps.setInt(5, limit);
+        return ps;
+    }
+}
@@ -0,0 +1,73 @@
+package com.challenge.clients.benchmark;
+
+import com.challenge.clients.dedup.DedupJob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole dedup job (both streaming passes with their normalization, scoring and the
+ * candidate insert) with 1 to 8 threads, to complement {@link DedupScalingBenchmark},
+ * which only covers scoring. Each run's candidates are deleted afterwards.
+ * <p>
+ * Needs a database created from {@code schema.sql} and seeded with
+ * {@code src/test/resources/benchmark/birthdays-10m.sql}; connection settings as in
+ * {@link BirthdayQueryBenchmark}. Run with
+ * {@code mvn -P benchmark test -DskipTests -Dbenchmark=DedupJobBenchmark} and a large
+ * enough {@code -jvmArgs -Xmx}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DedupJobBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private JdbcTemplate jdbcTemplate;
+    private DedupJob job;
+    private long runId = -1;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5433/clients_db"),
+                System.getProperty("benchmark.db.user", "postgres"),
+                System.getProperty("benchmark.db.password", "postgres"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        job = new DedupJob(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                0.85, 1000, parallelism, 10_000, 1000);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteCandidates() {
+        if (runId >= 0) {
+            jdbcTemplate.update("DELETE FROM client_duplicate_candidates WHERE run_id = ?", runId);
+        }
+    }
+
+    @Benchmark
+    public DedupJob.DedupReport run() {
+        DedupJob.DedupReport report = job.run();
+        runId = report.runId();
+        return report;
+    }
+}
@@ -0,0 +1,60 @@
+package com.challenge.clients.benchmark;
+
+import com.challenge.clients.dedup.SyntheticDedupData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores the blocks of {@code clients} synthetic clients ({@link SyntheticDedupData})
+ * with 1 to 8 fork-join threads, to check that the scoring phase of the dedup job scales
+ * with cores. Run with
+ * {@code mvn -P benchmark test -DskipTests -Dbenchmark=DedupScalingBenchmark} and
+ * compare the scores across {@code parallelism}; add {@code -p clients=10000000} with a
+ * large enough {@code -jvmArgs -Xmx} for the full-size table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DedupScalingBenchmark {
+
+    @Param({"1000000"})
+    public int clients;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private SyntheticDedupData data;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticDedupData.generate(clients, 42, 1000);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int score() {
+        return data.score(0.85, pool);
+    }
+}
@@ -0,0 +1,95 @@
+package com.challenge.clients.benchmark;
+
+import com.challenge.clients.cache.ClientJsonCache;
+import com.challenge.clients.controller.ClientController;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.exception.ExpectedErrorLog;
+import com.challenge.clients.exception.GlobalExceptionHandler;
+import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.service.ClientService;
+import com.challenge.clients.stats.ClientStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Compares {@code GET /api/clients/{id}} for an existing id (200) and a missing one
+ * (404) through the full MVC stack with an in-memory service, isolating the cost of the
+ * error path from database access. Run with
+ * {@code mvn -P benchmark test -DskipTests -Dbenchmark=ErrorPathBenchmark} and compare
+ * the two scores together with {@code -prof gc} allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        ClientResponseDTO client = ClientResponseDTO.builder()
+                .id(1L)
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-12345678-9")
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber("1165874210")
+                .email("juan.perez@example.com")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 30))
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 9, 30))
+                .build();
+
+        // Stub-only: a regular mock would record every invocation for the whole run.
+        ClientService clientService = mock(ClientService.class, withSettings().stubOnly());
+        when(clientService.findById(1L)).thenReturn(client);
+        // A new exception per call, like the service; a shared instance would hide its cost.
+        when(clientService.findById(99L)).thenAnswer(invocation -> {
+            throw ResourceNotFoundException.client(99L);
+        });
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ClientController controller = new ClientController(clientService,
+                new ClientJsonCache(objectMapper, new SimpleMeterRegistry(), 1 << 20, false, 16),
+                mock(ClientStats.class, withSettings().stubOnly()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler(new ExpectedErrorLog(10_000)))
+                .build();
+    }
+
+    @Benchmark
+    public MvcResult found() throws Exception {
+        return mockMvc.perform(get("/api/clients/1")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult notFound() throws Exception {
+        return mockMvc.perform(get("/api/clients/99")).andReturn();
+    }
+}
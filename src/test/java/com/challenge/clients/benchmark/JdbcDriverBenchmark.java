@@ -0,0 +1,171 @@
+package com.challenge.clients.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after for the pgjdbc settings of the {@code perf} profile, on one connection:
+ * {@code default} is the driver as configured in {@code application.yml}, {@code perf}
+ * the {@code data-source-properties} of {@code application-perf.yml} and
+ * {@code unprepared} never uses server-side statements ({@code prepareThreshold=0}, as
+ * behind a transaction-mode pooler). {@code searchPlpgsql} and {@code searchSql} compare
+ * the previous plpgsql {@code search_clients_by_name} with the current SQL function;
+ * both are created in {@code pg_temp} so the database is left untouched.
+ * <p>
+ * Needs a database created from {@code schema.sql} and seeded with
+ * {@code src/test/resources/benchmark/birthdays-10m.sql}; connection settings as in
+ * {@link BirthdayQueryBenchmark}. Run with
+ * {@code mvn -P benchmark test -DskipTests -Dbenchmark=JdbcDriverBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JdbcDriverBenchmark {
+
+    private static final String FIND_BY_ID = "SELECT * FROM clientes WHERE id = ?";
+    private static final String INSERT = "INSERT INTO clientes (nombre, apellido, razon_social, cuit, "
+            + "fecha_nacimiento, telefono_celular, email) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"default", "perf", "unprepared"})
+    public String driver;
+
+    @Param({"Nombre4242424"})
+    public String name;
+
+    @Param({"500"})
+    public int batchSize;
+
+    private Connection connection;
+    private long maxId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("benchmark.db.user", "postgres"));
+        properties.setProperty("password", System.getProperty("benchmark.db.password", "postgres"));
+        switch (driver) {
+            case "perf" -> {
+                properties.setProperty("prepareThreshold", "1");
+                properties.setProperty("preparedStatementCacheQueries", "512");
+                properties.setProperty("preparedStatementCacheSizeMiB", "8");
+                properties.setProperty("reWriteBatchedInserts", "true");
+            }
+            case "unprepared" -> properties.setProperty("prepareThreshold", "0");
+            default -> {
+            }
+        }
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5433/clients_db"), properties);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE FUNCTION pg_temp.search_plpgsql(p_name VARCHAR) RETURNS SETOF clientes AS $$
+                    BEGIN
+                        RETURN QUERY SELECT * FROM clientes
+                        WHERE nombre ILIKE '%' || p_name || '%' OR apellido ILIKE '%' || p_name || '%';
+                    END;
+                    $$ LANGUAGE plpgsql""");
+            statement.execute("""
+                    CREATE FUNCTION pg_temp.search_sql(p_name VARCHAR) RETURNS SETOF clientes AS $$
+                        SELECT * FROM clientes
+                        WHERE nombre ILIKE '%' || p_name || '%' OR apellido ILIKE '%' || p_name || '%';
+                    $$ LANGUAGE sql STABLE""");
+            try (ResultSet rs = statement.executeQuery("SELECT max(id) FROM clientes")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long findById() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(FIND_BY_ID)) {
+            ps.setLong(1, ThreadLocalRandom.current().nextLong(1, maxId + 1));
+            return count(ps);
+        }
+    }
+
+    @Benchmark
+    public long searchPlpgsql() throws SQLException {
+        return search("SELECT * FROM pg_temp.search_plpgsql(?)");
+    }
+
+    @Benchmark
+    public long searchSql() throws SQLException {
+        return search("SELECT * FROM pg_temp.search_sql(?)");
+    }
+
+    /**
+     * One JDBC batch of inserts, rolled back so the table does not grow between
+     * iterations. Compare {@code default} and {@code perf} for {@code reWriteBatchedInserts}.
+     */
+    @Benchmark
+    public int batchInsert() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+            long seed = ThreadLocalRandom.current().nextLong(1_000_000_000L);
+            for (int i = 0; i < batchSize; i++) {
+                long n = seed * batchSize + i;
+                ps.setString(1, "Batch" + n);
+                ps.setString(2, "Insert" + n);
+                ps.setString(3, "Benchmark SA");
+                ps.setString(4, "bench-" + n);
+                ps.setDate(5, Date.valueOf(LocalDate.of(1980, 1, 1)));
+                ps.setString(6, "1100000000");
+                ps.setString(7, "batch" + n + "@example.com");
+                ps.addBatch();
+            }
+            return ps.executeBatch().length;
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private long search(String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, name);
+            return count(ps);
+        }
+    }
+
+    private static long count(PreparedStatement ps) throws SQLException {
+        long rows = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,94 @@
+package com.challenge.clients.benchmark;
+
+import com.challenge.clients.ClientsApplication;
+import com.challenge.clients.model.Client;
+import com.challenge.clients.repository.ClientRepository;
+import com.challenge.clients.repository.ClientStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after for the whole {@code perf} profile (Hikari pool, pgjdbc and Hibernate
+ * settings): boots the application with the given profiles and calls the repository
+ * from 32 threads, below the service caches, so every call reaches the database.
+ * {@code profiles=""} is the default configuration.
+ * <p>
+ * Same database and connection settings as {@link JdbcDriverBenchmark}. Run with
+ * {@code mvn -P benchmark test -DskipTests -Dbenchmark=PersistenceProfileBenchmark}; add
+ * {@code -p profiles=perf -jvmArgs -DDB_POOL_SIZE=<n>} to compare pool sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(32)
+@Fork(1)
+public class PersistenceProfileBenchmark {
+
+    @Param({"", "perf"})
+    public String profiles;
+
+    @Param({"Nombre4242424"})
+    public String name;
+
+    private ConfigurableApplicationContext context;
+    private ClientStore repository;
+    private long maxId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ClientsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles.isEmpty() ? new String[0] : profiles.split(","))
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("benchmark.db.url",
+                                "jdbc:postgresql://localhost:5433/clients_db"),
+                        "spring.datasource.username=" + System.getProperty("benchmark.db.user", "postgres"),
+                        "spring.datasource.password=" + System.getProperty("benchmark.db.password", "postgres"),
+                        "clients.sql.instrumentation.enabled=false")
+                .run();
+        repository = context.getBean(ClientRepository.class);
+        maxId = context.getBean(JdbcTemplate.class).queryForObject("SELECT max(id) FROM clientes", Long.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Client> findById() {
+        return repository.findById(ThreadLocalRandom.current().nextLong(1, maxId + 1));
+    }
+
+    @Benchmark
+    public Optional<Client> findByEmail() {
+        return repository.findByEmail("cliente" + ThreadLocalRandom.current().nextLong(1, maxId + 1) + "@example.com");
+    }
+
+    @Benchmark
+    public List<Client> searchByName() {
+        return repository.searchByName(name);
+    }
+}
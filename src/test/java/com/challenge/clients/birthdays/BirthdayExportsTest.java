@@ -0,0 +1,163 @@
+package com.challenge.clients.birthdays;
+
+import com.challenge.clients.dto.BirthdayExportDTO;
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.exception.ExportNotReadyException;
+import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.service.ClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BirthdayExportsTest {
+
+    @Mock
+    private ClientService clientService;
+
+    @TempDir
+    Path directory;
+
+    private BirthdayExports exports;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exports = newExports();
+    }
+
+    @AfterEach
+    void tearDown() {
+        exports.shutdown();
+    }
+
+    @Test
+    void submit_writesEveryPageAsNdjson() throws Exception {
+        when(clientService.findUpcomingBirthdays(eq(7), isNull(), eq(2)))
+                .thenReturn(page("c1", List.of(client(1), client(2))));
+        when(clientService.findUpcomingBirthdays(7, "c1", 2)).thenReturn(page(null, List.of(client(3))));
+
+        BirthdayExportDTO submitted = exports.submit(7);
+        BirthdayExportDTO done = await(submitted.getId(), BirthdayExportDTO.Status.DONE);
+
+        assertThat(done.getRows()).isEqualTo(3);
+        List<String> lines = Files.readAllLines(exports.result(submitted.getId()));
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(2)).startsWith("{\"id\":3,");
+    }
+
+    @Test
+    void result_rejectsUnfinishedExport() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(clientService.findUpcomingBirthdays(anyInt(), isNull(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return page(null, List.of());
+        });
+
+        BirthdayExportDTO submitted = exports.submit(7);
+
+        assertThatThrownBy(() -> exports.result(submitted.getId())).isInstanceOf(ExportNotReadyException.class);
+        release.countDown();
+        await(submitted.getId(), BirthdayExportDTO.Status.DONE);
+    }
+
+    @Test
+    void failedExportReportsErrorAndRemovesFile() throws Exception {
+        when(clientService.findUpcomingBirthdays(anyInt(), isNull(), anyInt()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        BirthdayExportDTO submitted = exports.submit(7);
+        BirthdayExportDTO failed = await(submitted.getId(), BirthdayExportDTO.Status.FAILED);
+
+        assertThat(failed.getError()).isEqualTo("database unavailable");
+        assertThatThrownBy(() -> exports.result(submitted.getId())).isInstanceOf(ExportNotReadyException.class);
+    }
+
+    @Test
+    void purgeExpired_deletesFinishedExports() throws Exception {
+        when(clientService.findUpcomingBirthdays(anyInt(), isNull(), anyInt())).thenReturn(page(null, List.of(client(1))));
+        BirthdayExportDTO submitted = exports.submit(7);
+        await(submitted.getId(), BirthdayExportDTO.Status.DONE);
+        Path file = exports.result(submitted.getId());
+
+        exports.purgeExpired();
+
+        assertThat(file).doesNotExist();
+        assertThat(directory).isEmptyDirectory();
+        assertThatThrownBy(() -> exports.status(submitted.getId())).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void restart_keepsFinishedExports() throws Exception {
+        when(clientService.findUpcomingBirthdays(anyInt(), isNull(), anyInt())).thenReturn(page(null, List.of(client(1))));
+        BirthdayExportDTO submitted = exports.submit(7);
+        await(submitted.getId(), BirthdayExportDTO.Status.DONE);
+        exports.shutdown();
+
+        exports = newExports();
+
+        BirthdayExportDTO recovered = exports.status(submitted.getId());
+        assertThat(recovered.getStatus()).isEqualTo(BirthdayExportDTO.Status.DONE);
+        assertThat(recovered.getRows()).isEqualTo(1);
+        assertThat(Files.readAllLines(exports.result(submitted.getId()))).hasSize(1);
+    }
+
+    @Test
+    void restart_failsInterruptedExportsAndDeletesOrphanedFiles() throws Exception {
+        exports.shutdown();
+        String id = "6f1c2a9e-0d7b-4c53-9f0a-3b8e2d4c1a57";
+        Files.writeString(directory.resolve(id + ".json"),
+                "{\"id\":\"" + id + "\",\"status\":\"RUNNING\",\"days\":7,\"rows\":10}");
+        Files.writeString(directory.resolve(id + ".ndjson"), "{\"id\":1}\n");
+        Files.writeString(directory.resolve("clients-birthdays-orphan.ndjson"), "{\"id\":2}\n");
+
+        exports = newExports();
+
+        BirthdayExportDTO recovered = exports.status(id);
+        assertThat(recovered.getStatus()).isEqualTo(BirthdayExportDTO.Status.FAILED);
+        assertThat(recovered.getError()).isEqualTo("Interrupted by restart");
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString())).containsExactly(id + ".json");
+        }
+    }
+
+    private BirthdayExports newExports() throws Exception {
+        return new BirthdayExports(clientService, Jackson2ObjectMapperBuilder.json().build(), 2, 0, directory);
+    }
+
+    private BirthdayExportDTO await(String id, BirthdayExportDTO.Status expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        BirthdayExportDTO status = exports.status(id);
+        while (status.getStatus() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = exports.status(id);
+        }
+        assertThat(status.getStatus()).isEqualTo(expected);
+        return status;
+    }
+
+    private static ClientBirthdayPageDTO page(String nextCursor, List<ClientResponseDTO> clients) {
+        return ClientBirthdayPageDTO.builder().clients(clients).nextCursor(nextCursor).build();
+    }
+
+    private static ClientResponseDTO client(long id) {
+        return ClientResponseDTO.builder().id(id).firstName("Juan").lastName("Perez").build();
+    }
+}
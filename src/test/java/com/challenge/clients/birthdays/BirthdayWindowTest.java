@@ -0,0 +1,70 @@
+package com.challenge.clients.birthdays;
+
+import com.challenge.clients.birthdays.BirthdayWindow.Segment;
+import com.challenge.clients.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BirthdayWindowTest {
+
+    @Test
+    void of_withinYearIsOneSegment() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2026, 6, 10), 30);
+
+        assertThat(window.segments()).containsExactly(new Segment(610, 710));
+    }
+
+    @Test
+    void of_acrossYearEndIsSplitInUpcomingOrder() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2026, 12, 20), 30);
+
+        assertThat(window.segments()).containsExactly(new Segment(1220, 1231), new Segment(101, 119));
+    }
+
+    @Test
+    void of_fullYearStartsAtAnchor() {
+        assertThat(BirthdayWindow.of(LocalDate.of(2026, 3, 1), 365).segments())
+                .containsExactly(new Segment(301, 1231), new Segment(101, 300));
+        assertThat(BirthdayWindow.of(LocalDate.of(2026, 1, 1), 366).segments())
+                .containsExactly(new Segment(101, 1231));
+    }
+
+    @Test
+    void of_leapDayBirthdaysFallInsideFebruaryRange() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2026, 2, 27), 3);
+
+        assertThat(window.segments()).containsExactly(new Segment(227, 302));
+        assertThat(window.segments().get(0).contains(229)).isTrue();
+    }
+
+    @Test
+    void of_rejectsOutOfRangeDays() {
+        assertThatThrownBy(() -> BirthdayWindow.of(LocalDate.of(2026, 1, 1), 367))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> BirthdayWindow.of(LocalDate.of(2026, 1, 1), -1))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void parseCursor_restoresAnchorAndSegment() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2026, 12, 20), 30);
+
+        BirthdayWindow.Position position = BirthdayWindow.parseCursor(window.cursor(105, 42L), 30);
+
+        assertThat(position.window().anchor()).isEqualTo(LocalDate.of(2026, 12, 20));
+        assertThat(position.segment()).isEqualTo(1);
+        assertThat(position.monthDay()).isEqualTo(105);
+        assertThat(position.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void parseCursor_rejectsMalformedOrForeignCursor() {
+        assertThatThrownBy(() -> BirthdayWindow.parseCursor("garbage", 30))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> BirthdayWindow.parseCursor("20261220.600.1", 30))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.challenge.clients.cache;
+
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ClientJsonCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void encode_matchesJacksonOutput() throws Exception {
+        ClientJsonCache cache = new ClientJsonCache(objectMapper, meterRegistry, 1 << 20, false, 16);
+        ClientResponseDTO client = client(1L, LocalDateTime.of(2024, 5, 1, 10, 0));
+
+        assertThat(cache.encode(client)).isEqualTo(objectMapper.writeValueAsBytes(client));
+        assertThat(cache.encode(client)).isEqualTo(objectMapper.writeValueAsBytes(client));
+        assertThat(meterRegistry.counter("clients.json.cache.requests", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    void cached_returnsTheSharedEntryForTheCurrentVersionOnly() {
+        ClientJsonCache cache = new ClientJsonCache(objectMapper, meterRegistry, 1 << 20, false, 16);
+        LocalDateTime version = LocalDateTime.of(2024, 5, 1, 10, 0);
+        assertThat(cache.cached(1L, version)).isNull();
+
+        byte[] json = cache.encode(client(1L, version));
+
+        assertThat(cache.cached(1L, version)).isSameAs(json);
+        assertThat(cache.encode(client(1L, version))).isSameAs(json);
+        assertThat(cache.cached(1L, version.plusSeconds(1))).isNull();
+    }
+
+    @Test
+    void constructor_rejectsStripeCountThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new ClientJsonCache(objectMapper, meterRegistry, 1 << 20, false, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encode_reencodesWhenVersionChanges() throws Exception {
+        ClientJsonCache cache = new ClientJsonCache(objectMapper, meterRegistry, 1 << 20, true, 16);
+        cache.encode(client(1L, LocalDateTime.of(2024, 5, 1, 10, 0)));
+
+        ClientResponseDTO updated = client(1L, LocalDateTime.of(2024, 5, 2, 10, 0));
+        updated.setPhoneNumber("1100000000");
+
+        assertThat(new String(cache.encode(updated), StandardCharsets.UTF_8)).contains("1100000000");
+        assertThat(meterRegistry.counter("clients.json.cache.requests", "result", "miss").count()).isEqualTo(2);
+    }
+
+    @Test
+    void encodeArray_concatenatesFragments() throws Exception {
+        ClientJsonCache cache = new ClientJsonCache(objectMapper, meterRegistry, 1 << 20, true, 16);
+        List<ClientResponseDTO> clients = List.of(
+                client(1L, LocalDateTime.of(2024, 5, 1, 10, 0)),
+                client(2L, LocalDateTime.of(2024, 5, 1, 11, 0)));
+
+        assertThat(cache.encodeArray(clients)).isEqualTo(objectMapper.writeValueAsBytes(clients));
+        assertThat(cache.encodeArray(List.of())).isEqualTo("[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedOverByteBudget() {
+        int entrySize = new ClientJsonCache(objectMapper, new SimpleMeterRegistry(), 1 << 20, false, 16)
+                .encode(client(1L, LocalDateTime.of(2024, 5, 1, 10, 0))).length;
+        ClientJsonCache cache = new ClientJsonCache(objectMapper, meterRegistry, entrySize * 2L, false, 1);
+
+        cache.encode(client(1L, LocalDateTime.of(2024, 5, 1, 10, 0)));
+        cache.encode(client(2L, LocalDateTime.of(2024, 5, 1, 10, 0)));
+        cache.encode(client(3L, LocalDateTime.of(2024, 5, 1, 10, 0)));
+
+        assertThat(cache.totalBytes()).isEqualTo(entrySize * 2L);
+        cache.encode(client(1L, LocalDateTime.of(2024, 5, 1, 10, 0)));
+        assertThat(meterRegistry.counter("clients.json.cache.requests", "result", "miss").count()).isEqualTo(4);
+    }
+
+    @Test
+    void offHeap_reusesArenaChunksWithinTheByteBudget() throws Exception {
+        int entryChunks = OffHeapArena.chunksFor(objectMapper.writeValueAsBytes(
+                client(1L, LocalDateTime.of(2024, 5, 1, 10, 0))).length);
+        long budget = 2L * entryChunks * OffHeapArena.CHUNK_SIZE;
+        ClientJsonCache cache = new ClientJsonCache(objectMapper, meterRegistry, budget, true, 1);
+
+        for (long id = 1; id <= 10; id++) {
+            ClientResponseDTO client = client(id, LocalDateTime.of(2024, 5, 1, 10, 0));
+            client.setEmail("client" + id + "@example.com");
+            cache.encode(client);
+            assertThat(cache.totalBytes()).isLessThanOrEqualTo(budget);
+            assertThat(cache.encode(client)).isEqualTo(objectMapper.writeValueAsBytes(client));
+        }
+        assertThat(meterRegistry.counter("clients.json.cache.requests", "result", "hit").count()).isEqualTo(10);
+    }
+
+    private static ClientResponseDTO client(Long id, LocalDateTime updatedAt) {
+        return ClientResponseDTO.builder()
+                .id(id)
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-12345678-9")
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber("1165874210")
+                .email("juan.perez@example.com")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 30))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
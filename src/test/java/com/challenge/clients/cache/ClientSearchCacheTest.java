@@ -0,0 +1,128 @@
+package com.challenge.clients.cache;
+
+import com.challenge.clients.dto.ClientResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ClientSearchCacheTest {
+
+    private ClientSearchCache cache;
+    private AtomicInteger loads;
+
+    private final ClientResponseDTO juan = client(1L, "Juan", "Perez");
+    private final ClientResponseDTO julia = client(2L, "Julia", "Gomez");
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClientSearchCache(new SimpleMeterRegistry(), 2, 100, 2000);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void search_filtersCachedPrefixInMemory() {
+        cache.search("ju", q -> load(juan, julia));
+
+        List<ClientResponseDTO> result = cache.search("JUA", q -> load());
+
+        assertThat(result).containsExactly(juan);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void search_bypassesCacheForLikeWildcards() {
+        cache.search("j", q -> load(juan, julia));
+
+        cache.search("j_a", q -> load(juan));
+        cache.search("j_a", q -> load(juan));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void search_evictsLeastRecentlyUsedEntry() {
+        cache.search("a", q -> load());
+        cache.search("b", q -> load());
+        cache.search("a", q -> load());
+        cache.search("c", q -> load());
+
+        cache.search("b", q -> load());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void invalidate_evictsEntriesMatchingNewNamesOrContainingClient() {
+        cache.search("perez", q -> load(juan));
+        cache.search("gomez", q -> load(julia));
+
+        cache.invalidate(3L, "Ana", "Perez");
+
+        cache.search("perez", q -> load(juan));
+        cache.search("gomez", q -> load(julia));
+        assertThat(loads).hasValue(3);
+
+        cache.invalidate(2L, "Julia", "Fernandez");
+
+        cache.search("gomez", q -> load());
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void search_coalescesConcurrentIdenticalMisses() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<ClientResponseDTO>> leader = executor.submit(() -> cache.search("juan", q -> {
+                loaderStarted.countDown();
+                await(release);
+                return load(juan);
+            }));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+            Future<List<ClientResponseDTO>> follower = executor.submit(() -> cache.search("juan", q -> load(juan)));
+
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly(juan);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).containsExactly(juan);
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<ClientResponseDTO> load(ClientResponseDTO... clients) {
+        loads.incrementAndGet();
+        return List.of(clients);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ClientResponseDTO client(Long id, String firstName, String lastName) {
+        return ClientResponseDTO.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.challenge.clients.cache;
+
+import com.challenge.clients.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_sharesResultWithConcurrentCallers() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", meterRegistry, Duration.ofSeconds(5));
+
+        Future<String> leader = executor.submit(() -> flight.execute(1L, blockingCall(() -> "client-1")));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Future<String> first = executor.submit(() -> flight.execute(1L, () -> "unexpected"));
+        Future<String> second = executor.submit(() -> flight.execute(1L, () -> "unexpected"));
+        awaitFollowers(2);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("client-1");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("client-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("client-1");
+        assertThat(calls).hasValue(1);
+        assertThat(outcome("coalesced")).isEqualTo(2);
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    @Test
+    void execute_propagatesLeaderExceptionToFollowers() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", meterRegistry, Duration.ofSeconds(5));
+
+        Future<String> leader = executor.submit(() -> flight.execute(99L, blockingCall(() -> {
+            throw new ResourceNotFoundException("Client not found with id: 99");
+        })));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Future<String> follower = executor.submit(() -> flight.execute(99L, () -> "unexpected"));
+        awaitFollowers(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void execute_runsCallItselfAfterMaxWait() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", meterRegistry, Duration.ofMillis(20));
+
+        executor.submit(() -> flight.execute(1L, blockingCall(() -> "slow")));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        assertThat(flight.execute(1L, () -> "fallback")).isEqualTo("fallback");
+        assertThat(outcome("timeout")).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void execute_doesNotCoalesceDifferentKeys() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", meterRegistry, Duration.ofSeconds(5));
+
+        assertThat(flight.execute(1L, () -> "one")).isEqualTo("one");
+        assertThat(flight.execute(2L, () -> "two")).isEqualTo("two");
+        assertThat(outcome("leader")).isEqualTo(2);
+    }
+
+    private Supplier<String> blockingCall(Supplier<String> result) {
+        return () -> {
+            calls.incrementAndGet();
+            leaderStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private void awaitFollowers(int expected) throws InterruptedException {
+        // Followers park in CompletableFuture.get(); give them time to register.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() < expected + 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.counter("clients.single.flight.calls", "name", "test", "outcome", outcome).count();
+    }
+}
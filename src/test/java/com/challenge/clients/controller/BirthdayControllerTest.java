@@ -0,0 +1,104 @@
+package com.challenge.clients.controller;
+
+import com.challenge.clients.birthdays.BirthdayExports;
+import com.challenge.clients.dto.BirthdayExportDTO;
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.exception.ExpectedErrorLog;
+import com.challenge.clients.exception.ExportNotReadyException;
+import com.challenge.clients.exception.GlobalExceptionHandler;
+import com.challenge.clients.exception.InvalidRequestException;
+import com.challenge.clients.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class BirthdayControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ClientService clientService;
+
+    @Mock
+    private BirthdayExports birthdayExports;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new BirthdayController(clientService, birthdayExports))
+                .setControllerAdvice(new GlobalExceptionHandler(new ExpectedErrorLog(10_000)))
+                .build();
+    }
+
+    @Test
+    void upcoming_returnsPageWithCursor() throws Exception {
+        when(clientService.findUpcomingBirthdays(eq(30), isNull(), eq(100))).thenReturn(ClientBirthdayPageDTO.builder()
+                .clients(List.of(ClientResponseDTO.builder().id(1L).firstName("Juan").build()))
+                .nextCursor("20261018.1020.1")
+                .build());
+
+        mockMvc.perform(get("/api/clients/birthdays").param("days", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clients[0].firstName").value("Juan"))
+                .andExpect(jsonPath("$.nextCursor").value("20261018.1020.1"));
+    }
+
+    @Test
+    void upcoming_returns400ForInvalidCursor() throws Exception {
+        when(clientService.findUpcomingBirthdays(7, "bad", 100))
+                .thenThrow(new InvalidRequestException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/clients/birthdays").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Invalid cursor: bad"));
+    }
+
+    @Test
+    void startExport_returns202WithLocation() throws Exception {
+        when(birthdayExports.submit(30)).thenReturn(BirthdayExportDTO.builder()
+                .id("abc").status(BirthdayExportDTO.Status.PENDING).days(30).build());
+
+        mockMvc.perform(post("/api/clients/birthdays/exports").param("days", "30"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/clients/birthdays/exports/abc"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void exportResult_streamsNdjson(@TempDir Path dir) throws Exception {
+        Path file = Files.writeString(dir.resolve("export.ndjson"), "{\"id\":1}\n{\"id\":2}\n");
+        when(birthdayExports.result("abc")).thenReturn(file);
+
+        mockMvc.perform(get("/api/clients/birthdays/exports/abc/result"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BirthdayController.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportResult_returns409WhileRunning() throws Exception {
+        when(birthdayExports.result("abc")).thenThrow(new ExportNotReadyException("Export abc is RUNNING"));
+
+        mockMvc.perform(get("/api/clients/birthdays/exports/abc/result"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Export abc is RUNNING"));
+    }
+}
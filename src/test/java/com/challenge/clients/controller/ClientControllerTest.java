@@ -1,26 +1,33 @@
 package com.challenge.clients.controller;
 
+import com.challenge.clients.cache.ClientJsonCache;
 import com.challenge.clients.dto.ClientRequestDTO;
 import com.challenge.clients.dto.ClientResponseDTO;
 import com.challenge.clients.exception.DuplicateResourceException;
+import com.challenge.clients.exception.ExpectedErrorLog;
 import com.challenge.clients.exception.GlobalExceptionHandler;
 import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.exception.StatsNotReadyException;
 import com.challenge.clients.service.ClientService;
+import com.challenge.clients.stats.ClientStats;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,7 +45,9 @@ class ClientControllerTest {
     @Mock
     private ClientService clientService;
 
-    @InjectMocks
+    @Mock
+    private ClientStats clientStats;
+
     private ClientController clientController;
 
     private ClientResponseDTO responseDTO;
@@ -46,8 +55,12 @@ class ClientControllerTest {
 
     @BeforeEach
     void setUp() {
+        ClientJsonCache clientJsonCache = new ClientJsonCache(Jackson2ObjectMapperBuilder.json().build(),
+                new SimpleMeterRegistry(), 1 << 20, false, 16);
+        clientController = new ClientController(clientService, clientJsonCache, clientStats);
+
         mockMvc = MockMvcBuilders.standaloneSetup(clientController)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(new ExpectedErrorLog(10_000)))
                 .build();
 
         objectMapper = new ObjectMapper();
@@ -107,13 +120,73 @@ class ClientControllerTest {
                 .andExpect(jsonPath("$.email").value("juan.perez@example.com"));
     }
 
+    @Test
+    void getById_servesCachedJsonWithoutLoadingWhenVersionIsKnown() throws Exception {
+        when(clientService.findById(1L)).thenReturn(responseDTO);
+        mockMvc.perform(get("/api/clients/1")).andExpect(status().isOk());
+
+        when(clientService.findVersion(1L)).thenReturn(Optional.of(responseDTO.getUpdatedAt()));
+        mockMvc.perform(get("/api/clients/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Juan"));
+
+        verify(clientService, times(1)).findById(1L);
+    }
+
+    @Test
+    void stats_returns200WithEncodedCounters() throws Exception {
+        when(clientStats.encoded()).thenReturn("{\"total\":5,\"byTaxIdPrefix\":{\"20\":2}}".getBytes());
+
+        mockMvc.perform(get("/api/clients/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.byTaxIdPrefix.20").value(2));
+        verifyNoInteractions(clientService);
+    }
+
+    @Test
+    void stats_returns503BeforeFirstReconciliation() throws Exception {
+        when(clientStats.encoded()).thenThrow(new StatsNotReadyException("not reconciled"));
+
+        mockMvc.perform(get("/api/clients/stats"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
     @Test
     void getById_returns404WhenNotFound() throws Exception {
         when(clientService.findById(99L)).thenThrow(new ResourceNotFoundException("Client not found with id: 99"));
 
         mockMvc.perform(get("/api/clients/99"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Client not found with id: 99"));
+                .andExpect(jsonPath("$.detail").value("Client not found with id: 99"));
+    }
+
+    @Test
+    void getById_returnsProblemJsonWhenNotFound() throws Exception {
+        when(clientService.findById(99L)).thenThrow(ResourceNotFoundException.client(99L));
+
+        mockMvc.perform(get("/api/clients/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("about:blank"))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Client not found with id: 99"));
+    }
+
+    @Test
+    void create_escapesDetailInProblemJson() throws Exception {
+        when(clientService.create(any(ClientRequestDTO.class)))
+                .thenThrow(DuplicateResourceException.email("\"quoted\"\\ñandú@example.com"));
+
+        mockMvc.perform(post("/api/clients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail")
+                        .value("A client with email \"quoted\"\\ñandú@example.com already exists"));
     }
 
     @Test
@@ -163,7 +236,11 @@ class ClientControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalid)))
                 .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.fieldErrors").exists());
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Bad Request"))
+                .andExpect(jsonPath("$.detail").value("Validation failed"))
+                .andExpect(jsonPath("$.fieldErrors.email").isString())
+                .andExpect(jsonPath("$.fieldErrors.taxId").isString());
     }
 
     @Test
@@ -175,7 +252,19 @@ class ClientControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isConflict())
-                .andExpect(jsonPath("$.message").value("A client with tax ID 20-12345678-9 already exists"));
+                .andExpect(jsonPath("$.detail").value("A client with tax ID 20-12345678-9 already exists"));
+    }
+
+    @Test
+    void create_returns409OnUniqueConstraintViolation() throws Exception {
+        when(clientService.create(any(ClientRequestDTO.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        mockMvc.perform(post("/api/clients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
     }
 
     @Test
@@ -198,7 +287,7 @@ class ClientControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Client not found with id: 99"));
+                .andExpect(jsonPath("$.detail").value("Client not found with id: 99"));
     }
 
     @Test
@@ -227,6 +316,6 @@ class ClientControllerTest {
 
         mockMvc.perform(delete("/api/clients/99"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message").value("Client not found with id: 99"));
+                .andExpect(jsonPath("$.detail").value("Client not found with id: 99"));
     }
 }
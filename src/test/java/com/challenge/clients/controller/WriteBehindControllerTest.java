@@ -0,0 +1,169 @@
+package com.challenge.clients.controller;
+
+import com.challenge.clients.cache.ClientJsonCache;
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.dto.ContactUpdateStatusDTO;
+import com.challenge.clients.exception.ExpectedErrorLog;
+import com.challenge.clients.exception.GlobalExceptionHandler;
+import com.challenge.clients.exception.ResourceNotFoundException;
+import com.challenge.clients.service.ClientService;
+import com.challenge.clients.stats.ClientStats;
+import com.challenge.clients.writebehind.ContactUpdateBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindControllerTest {
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private ClientService clientService;
+
+    @Mock
+    private ClientStats clientStats;
+
+    @Mock
+    private ContactUpdateBuffer contactUpdateBuffer;
+
+    private ClientRequestDTO requestDTO;
+
+    @BeforeEach
+    void setUp() {
+        ClientJsonCache clientJsonCache = new ClientJsonCache(Jackson2ObjectMapperBuilder.json().build(),
+                new SimpleMeterRegistry(), 1 << 20, false, 16);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new ClientController(clientService, clientJsonCache, clientStats),
+                        new WriteBehindController(clientService, contactUpdateBuffer))
+                .setControllerAdvice(new GlobalExceptionHandler(new ExpectedErrorLog(10_000)))
+                .build();
+
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        requestDTO = ClientRequestDTO.builder()
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-12345678-9")
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber("1100000001")
+                .email("juan.perez@example.com")
+                .build();
+    }
+
+    @Test
+    void updateAsync_returns202WithSequence() throws Exception {
+        when(contactUpdateBuffer.accept(eq(1L), any(ClientRequestDTO.class))).thenReturn(Optional.of(7L));
+        when(contactUpdateBuffer.status(7L)).thenReturn(updateStatus(7L, ContactUpdateStatusDTO.Status.PENDING));
+
+        mockMvc.perform(put("/api/clients/1")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/clients/contact-updates/7"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.sequence").value(7))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(clientService, never()).update(any(), any());
+    }
+
+    @Test
+    void updateAsync_fallsBackToSynchronousUpdateWhenOtherFieldsChange() throws Exception {
+        when(contactUpdateBuffer.accept(eq(1L), any(ClientRequestDTO.class))).thenReturn(Optional.empty());
+        when(clientService.update(eq(1L), any(ClientRequestDTO.class)))
+                .thenReturn(ClientResponseDTO.builder().id(1L).build());
+
+        mockMvc.perform(put("/api/clients/1")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Preference-Applied"))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void updateAsync_findsRespondAsyncInAListOfPreferences() throws Exception {
+        when(contactUpdateBuffer.accept(eq(1L), any(ClientRequestDTO.class))).thenReturn(Optional.of(7L));
+        when(contactUpdateBuffer.status(7L)).thenReturn(updateStatus(7L, ContactUpdateStatusDTO.Status.PENDING));
+
+        mockMvc.perform(put("/api/clients/1")
+                        .header("Prefer", "return=minimal", "Respond-Async, wait=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+    }
+
+    @Test
+    void update_withOtherPreferencesStaysSynchronous() throws Exception {
+        when(clientService.update(eq(1L), any(ClientRequestDTO.class)))
+                .thenReturn(ClientResponseDTO.builder().id(1L).build());
+
+        mockMvc.perform(put("/api/clients/1")
+                        .header("Prefer", "wait=5; respond-async=never, return=minimal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(contactUpdateBuffer);
+    }
+
+    @Test
+    void update_withoutPreferenceStaysSynchronous() throws Exception {
+        when(clientService.update(eq(1L), any(ClientRequestDTO.class)))
+                .thenReturn(ClientResponseDTO.builder().id(1L).build());
+
+        mockMvc.perform(put("/api/clients/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(contactUpdateBuffer);
+    }
+
+    @Test
+    void status_returns200() throws Exception {
+        when(contactUpdateBuffer.status(7L)).thenReturn(updateStatus(7L, ContactUpdateStatusDTO.Status.FLUSHED));
+
+        mockMvc.perform(get("/api/clients/contact-updates/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FLUSHED"));
+    }
+
+    @Test
+    void status_returns404ForUnknownSequence() throws Exception {
+        when(contactUpdateBuffer.status(99L)).thenThrow(new ResourceNotFoundException("Contact update not found: 99"));
+
+        mockMvc.perform(get("/api/clients/contact-updates/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static ContactUpdateStatusDTO updateStatus(long sequence, ContactUpdateStatusDTO.Status status) {
+        return ContactUpdateStatusDTO.builder().sequence(sequence).status(status).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.challenge.clients.dedup;
+
+import com.challenge.clients.H2SpringBootTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs both passes and the candidate insert against H2; the review table and the run id
+ * sequence come from {@code h2/schema.sql}.
+ */
+@H2SpringBootTest
+class DedupJobTest {
+
+    @Autowired
+    private DedupJob job;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM client_duplicate_candidates");
+        jdbcTemplate.update("DELETE FROM clientes");
+    }
+
+    @Test
+    void run_writesClustersOfLikelyDuplicatesForReview() {
+        long juan = insert("Juan", "Perez", "JP Servicios SRL", "20-12345678-9", "1165874210", "juan.perez@example.com");
+        long juanAgain = insert("JUAN", "Pérez", "J.P. Servicios S.R.L.", "20-12345678-0", "+54 9 11 6587-4210",
+                "jperez@example.com");
+        insert("Maria", "Gomez", "MG Soluciones", "27-23456789-0", "1165874221", "maria.gomez@example.com");
+        insert("Pedro", "Paz", "PP Logistica", "20-99999999-9", "1165870000", "pedro.paz@example.com");
+
+        DedupJob.DedupReport report = job.run();
+
+        assertThat(report.clients()).isEqualTo(4);
+        assertThat(report.clusters()).isEqualTo(1);
+        assertThat(report.candidates()).isEqualTo(2);
+        List<Long> candidates = jdbcTemplate.queryForList(
+                "SELECT client_id FROM client_duplicate_candidates WHERE run_id = ? AND cluster_id = ? ORDER BY client_id",
+                Long.class, report.runId(), juan);
+        assertThat(candidates).containsExactly(juan, juanAgain);
+    }
+
+    @Test
+    void run_takesEachRunIdFromTheSequence() {
+        long first = job.run().runId();
+        long second = job.run().runId();
+
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void run_findsDuplicatesReadInDifferentNormalizationChunks() {
+        long juan = insert("Juan", "Perez", "JP Servicios SRL", "20-12345678-9", "1165874210", "juan.perez@example.com");
+        List<Object[]> others = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String name = letters(i);
+            others.add(new Object[]{name, name + "ez", "Empresa " + name, "30-" + (10_000_000 + i) + "-1",
+                    Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(i)), String.valueOf(1_000_000_000L + i),
+                    name + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO clientes (nombre, apellido, razon_social, cuit, fecha_nacimiento, "
+                + "telefono_celular, email) VALUES (?, ?, ?, ?, ?, ?, ?)", others);
+        long juanAgain = insert("JUAN", "Pérez", "J.P. Servicios S.R.L.", "20-12345678-0", "+54 9 11 6587-4210",
+                "jperez@example.com");
+
+        DedupJob.DedupReport report = job.run();
+
+        assertThat(report.clients()).isEqualTo(5002);
+        List<Long> candidates = jdbcTemplate.queryForList(
+                "SELECT client_id FROM client_duplicate_candidates WHERE run_id = ? AND cluster_id = ? ORDER BY client_id",
+                Long.class, report.runId(), juan);
+        assertThat(candidates).containsExactly(juan, juanAgain);
+    }
+
+    private static String letters(int n) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        }
+        return name.toString();
+    }
+
+    private long insert(String firstName, String lastName, String company, String taxId, String phone, String email) {
+        jdbcTemplate.update("INSERT INTO clientes (nombre, apellido, razon_social, cuit, fecha_nacimiento, "
+                        + "telefono_celular, email) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                firstName, lastName, company, taxId, Date.valueOf(LocalDate.of(1985, 6, 15)), phone, email);
+        return jdbcTemplate.queryForObject("SELECT id FROM clientes WHERE email = ?", Long.class, email);
+    }
+}
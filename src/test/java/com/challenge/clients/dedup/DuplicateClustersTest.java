@@ -0,0 +1,100 @@
+package com.challenge.clients.dedup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateClustersTest {
+
+    private static final LocalDate BIRTH_DATE = LocalDate.of(1985, 6, 15);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void find_clustersSpellingVariantsAndLeavesDistinctClientsOut() {
+        NormalizedClient[] records = {
+                client(10, "Juan", "Velazquez", "JP Servicios SRL", BIRTH_DATE, "1165874210", "juan.velazquez@example.com"),
+                client(11, "Juan", "Velásquez", "JP Servicios S.R.L.", BIRTH_DATE, "11 6587-4210", "jvelasquez@example.com"),
+                client(12, "Maria", "Gomez", "MG Soluciones", LocalDate.of(1990, 9, 21), "1165874221", "maria.gomez@example.com"),
+                client(13, "Mario", "Belasques", "Otra Empresa", BIRTH_DATE, "1199990000", "mario.b@example.com")
+        };
+
+        DuplicateClusters.Result result = find(records, 1000);
+
+        assertThat(result.clusters()).hasSize(1);
+        DuplicateClusters.Cluster cluster = result.clusters().get(0);
+        assertThat(cluster.clusterId()).isEqualTo(10L);
+        assertThat(cluster.members()).extracting(DuplicateClusters.Member::clientId).containsExactly(10L, 11L);
+        assertThat(cluster.members()).allSatisfy(member -> assertThat(member.score()).isGreaterThanOrEqualTo(0.85));
+    }
+
+    @Test
+    void find_joinsPairsFromDifferentBlocksIntoOneCluster() {
+        NormalizedClient[] records = {
+                client(20, "Lucia", "Martinez", "LM Consultora", BIRTH_DATE, "1165874443", "lucia.martinez@example.com"),
+                client(21, "Lucia", "Martines", "LM Consultora", BIRTH_DATE, "1165874443", "lmartinez@example.com"),
+                client(22, "Lucía", "Martinez", "LM Consultora SA", BIRTH_DATE, "11 6587-4443", "lucia.m@example.com")
+        };
+
+        // 20 and 22 share no block, so they are never compared with each other.
+        DuplicateClusters.Result result = DuplicateClusters.find(records,
+                List.of(new int[]{0, 1}, new int[]{1, 2}), 0.85, pool);
+
+        assertThat(result.pairVisits()).isEqualTo(2);
+        assertThat(result.clusters()).singleElement()
+                .satisfies(cluster -> assertThat(cluster.members())
+                        .extracting(DuplicateClusters.Member::clientId).containsExactly(20L, 21L, 22L));
+    }
+
+    @Test
+    void build_skipsBlocksOverTheLimitAndMarksMembers() {
+        BlockIndex index = new BlockIndex();
+        for (int i = 0; i < 5; i++) {
+            index.add(client(i, "Ana", "Diaz", "AD", BIRTH_DATE, "11000000" + i, "ana" + i + "@example.com"));
+        }
+        index.add(client(5, "Pedro", "Ruiz", "PR", LocalDate.of(1970, 1, 1), "1122223333", "pedro@example.com"));
+
+        BlockIndex.Blocks blocks = index.build(4);
+
+        // Surname/birth date and company/first name blocks hold all five "Ana Diaz".
+        assertThat(blocks.oversized()).isEqualTo(2);
+        assertThat(blocks.blocks()).isEmpty();
+        assertThat(blocks.members().isEmpty()).isTrue();
+    }
+
+    @Test
+    void find_skipsRecordsMissingFromTheSecondPass() {
+        NormalizedClient[] records = {
+                client(30, "Diego", "Fernandez", "DF Diseno", BIRTH_DATE, "1165874554", "diego.fernandez@example.com"),
+                null
+        };
+
+        DuplicateClusters.Result result = DuplicateClusters.find(records, List.of(new int[]{0, 1}), 0.85, pool);
+
+        assertThat(result.clusters()).isEmpty();
+        assertThat(result.pairVisits()).isEqualTo(1);
+    }
+
+    private DuplicateClusters.Result find(NormalizedClient[] records, int maxBlockSize) {
+        BlockIndex index = new BlockIndex();
+        for (NormalizedClient record : records) {
+            index.add(record);
+        }
+        return DuplicateClusters.find(records, index.build(maxBlockSize).blocks(), 0.85, pool);
+    }
+
+    private static NormalizedClient client(long id, String firstName, String lastName, String company,
+                                           LocalDate birthDate, String phone, String email) {
+        return NormalizedClient.of(id, firstName, lastName, company, birthDate, phone, email);
+    }
+}
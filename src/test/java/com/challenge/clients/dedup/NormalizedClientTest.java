@@ -0,0 +1,39 @@
+package com.challenge.clients.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NormalizedClientTest {
+
+    @Test
+    void of_normalizesEveryField() {
+        NormalizedClient client = NormalizedClient.of(1L, "  José María ", "Pérez-Gómez", "J.P. Servicios S.R.L.",
+                LocalDate.of(1985, 6, 15), "+54 9 11 6587-4210", "Juan.Perez+promo@Example.com");
+
+        assertThat(client.firstName()).isEqualTo("jose maria");
+        assertThat(client.lastName()).isEqualTo("perez gomez");
+        assertThat(client.companyName()).isEqualTo("jp servicios");
+        assertThat(client.phoneNumber()).isEqualTo("65874210");
+        assertThat(client.email()).isEqualTo("juan.perez@example.com");
+    }
+
+    @Test
+    void company_dropsLegalSuffixesWrittenEitherWay() {
+        assertThat(NormalizedClient.company("MG Soluciones SA")).isEqualTo("mg soluciones");
+        assertThat(NormalizedClient.company("MG Soluciones S.A.")).isEqualTo("mg soluciones");
+        assertThat(NormalizedClient.company("Sastreria SAS")).isEqualTo("sastreria");
+    }
+
+    @Test
+    void spanishPhonetic_mergesLettersThatSoundAlike() {
+        assertThat(SpanishPhonetic.encode("velazquez")).isEqualTo("BLSKS");
+        assertThat(SpanishPhonetic.encode("belasques")).isEqualTo("BLSKS");
+        assertThat(SpanishPhonetic.encode(NormalizedClient.text("Velásquez"))).isEqualTo("BLSKS");
+        assertThat(SpanishPhonetic.encode("gimenez")).isEqualTo(SpanishPhonetic.encode("jimenez"));
+        assertThat(SpanishPhonetic.encode("llanos")).isEqualTo(SpanishPhonetic.encode("yanos"));
+        assertThat(SpanishPhonetic.encode("perez")).isNotEqualTo(SpanishPhonetic.encode("gomez"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.challenge.clients.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StringSimilarityTest {
+
+    @Test
+    void jaroWinkler_matchesReferenceValues() {
+        assertThat(StringSimilarity.jaroWinkler("martha", "marhta")).isCloseTo(0.961, within(0.001));
+        assertThat(StringSimilarity.jaroWinkler("dwayne", "duane")).isCloseTo(0.840, within(0.001));
+        assertThat(StringSimilarity.jaroWinkler("dixon", "dicksonx")).isCloseTo(0.813, within(0.001));
+    }
+
+    @Test
+    void jaroWinkler_identicalIsOneAndEmptyIsZero() {
+        assertThat(StringSimilarity.jaroWinkler("perez", "perez")).isEqualTo(1.0);
+        assertThat(StringSimilarity.jaroWinkler("", "")).isZero();
+        assertThat(StringSimilarity.jaroWinkler("perez", "")).isZero();
+        assertThat(StringSimilarity.jaroWinkler("abc", "xyz")).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+package com.challenge.clients.dedup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Synthetic clients already split into blocks, for benchmarks outside this package that
+ * drive the scoring phase of {@link DedupJob} without a database. About 5% of the clients
+ * are altered copies of another (swapped letters in the surname, different email).
+ */
+public final class SyntheticDedupData {
+
+    private static final String[] FIRST_NAMES = {"juan", "maria", "carlos", "lucia", "diego", "ana", "jorge",
+            "sofia", "pablo", "laura", "martin", "paula", "lucas", "julieta", "nicolas", "carla"};
+    private static final String[] LAST_NAMES = {"perez", "gomez", "lopez", "martinez", "fernandez", "gonzalez",
+            "rodriguez", "sanchez", "romero", "diaz", "alvarez", "torres", "ruiz", "ramirez", "flores", "acosta",
+            "benitez", "medina", "herrera", "suarez", "aguirre", "gimenez", "gutierrez", "pereyra", "rojas",
+            "molina", "castro", "ortiz", "silva", "nunez", "luna", "juarez", "cabrera", "rios", "ferreyra",
+            "godoy", "morales", "dominguez", "moreno", "peralta"};
+
+    private final NormalizedClient[] records;
+    private final List<int[]> blocks;
+
+    private SyntheticDedupData(NormalizedClient[] records, List<int[]> blocks) {
+        this.records = records;
+        this.blocks = blocks;
+    }
+
+    public static SyntheticDedupData generate(int clients, long seed, int maxBlockSize) {
+        Random random = new Random(seed);
+        NormalizedClient[] records = new NormalizedClient[clients];
+        BlockIndex index = new BlockIndex();
+        LocalDate epoch = LocalDate.of(1950, 1, 1);
+        for (int i = 0; i < clients; i++) {
+            NormalizedClient client;
+            if (i > 0 && random.nextInt(20) == 0) {
+                NormalizedClient original = records[random.nextInt(i)];
+                client = NormalizedClient.of(i, original.firstName(), typo(original.lastName(), random),
+                        original.companyName(), original.birthDate(), original.phoneNumber(),
+                        "x" + original.email());
+            } else {
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                client = NormalizedClient.of(i, firstName, lastName,
+                        lastName + " " + random.nextInt(clients / 10 + 1) + " SRL",
+                        epoch.plusDays(random.nextInt(365 * 55)),
+                        String.valueOf(1100000000L + random.nextInt(100_000_000)),
+                        firstName + "." + lastName + i + "@example.com");
+            }
+            records[i] = client;
+            index.add(client);
+        }
+        return new SyntheticDedupData(records, index.build(maxBlockSize).blocks());
+    }
+
+    /**
+     * Scores every block on {@code pool} and returns the number of clusters found.
+     */
+    public int score(double threshold, ForkJoinPool pool) {
+        return DuplicateClusters.find(records, blocks, threshold, pool).clusters().size();
+    }
+
+    private static String typo(String word, Random random) {
+        int i = random.nextInt(word.length() - 1);
+        char[] chars = word.toCharArray();
+        char swap = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = swap;
+        return new String(chars);
+    }
+}
@@ -0,0 +1,27 @@
+package com.challenge.clients.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConnectionPoolConfigTest {
+
+    @Test
+    void poolSize_isTwiceTheCoresPlusOneForALocalDatabase() {
+        assertThat(ConnectionPoolConfig.poolSize(4, 0, 1)).isEqualTo(9);
+    }
+
+    @Test
+    void poolSize_growsWithTheShareOfTimeSpentOnTheNetwork() {
+        assertThat(ConnectionPoolConfig.poolSize(4, 1, 1)).isEqualTo(17);
+        assertThat(ConnectionPoolConfig.poolSize(2, 0.5, 2)).isEqualTo(6);
+    }
+
+    @Test
+    void poolSize_rejectsNonPositiveInputs() {
+        assertThatThrownBy(() -> ConnectionPoolConfig.poolSize(0, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConnectionPoolConfig.poolSize(4, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
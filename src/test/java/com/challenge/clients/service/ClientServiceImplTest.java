@@ -1,15 +1,21 @@
 package com.challenge.clients.service;
 
+import com.challenge.clients.birthdays.BirthdayWindow;
+import com.challenge.clients.cache.ClientSearchCache;
+import com.challenge.clients.dto.ClientBirthdayPageDTO;
 import com.challenge.clients.dto.ClientRequestDTO;
 import com.challenge.clients.dto.ClientResponseDTO;
 import com.challenge.clients.exception.DuplicateResourceException;
+import com.challenge.clients.exception.InvalidRequestException;
 import com.challenge.clients.exception.ResourceNotFoundException;
 import com.challenge.clients.model.Client;
-import com.challenge.clients.repository.ClientRepository;
+import com.challenge.clients.replica.ClientReplica;
+import com.challenge.clients.repository.ClientStore;
+import com.challenge.clients.stats.ClientStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -26,9 +32,14 @@ import static org.mockito.Mockito.*;
 class ClientServiceImplTest {
 
     @Mock
-    private ClientRepository clientRepository;
+    private ClientStore clientStore;
+
+    @Mock
+    private ClientReplica clientReplica;
+
+    @Mock
+    private ClientStats clientStats;
 
-    @InjectMocks
     private ClientServiceImpl clientService;
 
     private Client client;
@@ -36,6 +47,10 @@ class ClientServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        clientService = new ClientServiceImpl(clientStore,
+                new ClientSearchCache(new SimpleMeterRegistry(), 100, 100, 2000), clientReplica,
+                clientStats, new SimpleMeterRegistry(), 2000);
+
         client = Client.builder()
                 .id(1L)
                 .firstName("Juan")
@@ -62,18 +77,18 @@ class ClientServiceImplTest {
 
     @Test
     void findAll_returnsListOfClients() {
-        when(clientRepository.findAll()).thenReturn(List.of(client));
+        when(clientStore.findAll()).thenReturn(List.of(client));
 
         List<ClientResponseDTO> result = clientService.findAll();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getFirstName()).isEqualTo("Juan");
-        verify(clientRepository).findAll();
+        verify(clientStore).findAll();
     }
 
     @Test
     void findAll_returnsEmptyList() {
-        when(clientRepository.findAll()).thenReturn(List.of());
+        when(clientStore.findAll()).thenReturn(List.of());
 
         List<ClientResponseDTO> result = clientService.findAll();
 
@@ -82,7 +97,7 @@ class ClientServiceImplTest {
 
     @Test
     void findById_returnsClient() {
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
 
         ClientResponseDTO result = clientService.findById(1L);
 
@@ -93,16 +108,50 @@ class ClientServiceImplTest {
 
     @Test
     void findById_throwsWhenNotFound() {
-        when(clientRepository.findById(99L)).thenReturn(Optional.empty());
+        when(clientStore.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> clientService.findById(99L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("99");
     }
 
+    @Test
+    void findById_servedFromReplicaWhenServing() {
+        ClientResponseDTO replicated = ClientResponseDTO.builder().id(1L).firstName("Juan").build();
+        when(clientReplica.isServing()).thenReturn(true);
+        when(clientReplica.findById(1L)).thenReturn(Optional.of(replicated));
+
+        ClientResponseDTO result = clientService.findById(1L);
+
+        assertThat(result).isSameAs(replicated);
+        verifyNoInteractions(clientStore);
+    }
+
+    @Test
+    void findById_fallsBackToDatabaseOnReplicaMiss() {
+        when(clientReplica.isServing()).thenReturn(true);
+        when(clientReplica.findById(1L)).thenReturn(Optional.empty());
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
+
+        ClientResponseDTO result = clientService.findById(1L);
+
+        assertThat(result.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void create_checksDuplicatesAgainstReplicaWhenServing() {
+        when(clientReplica.isServing()).thenReturn(true);
+        when(clientReplica.findIdByTaxId("20-12345678-9")).thenReturn(Optional.of(7L));
+
+        assertThatThrownBy(() -> clientService.create(requestDTO))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessageContaining("tax ID");
+        verifyNoInteractions(clientStore);
+    }
+
     @Test
     void searchByName_returnsMatchingClients() {
-        when(clientRepository.searchByName("Juan")).thenReturn(List.of(client));
+        when(clientStore.searchByName("Juan")).thenReturn(List.of(client));
 
         List<ClientResponseDTO> result = clientService.searchByName("Juan");
 
@@ -112,29 +161,88 @@ class ClientServiceImplTest {
 
     @Test
     void searchByName_returnsEmptyWhenNoMatch() {
-        when(clientRepository.searchByName("XYZ")).thenReturn(List.of());
+        when(clientStore.searchByName("XYZ")).thenReturn(List.of());
 
         List<ClientResponseDTO> result = clientService.searchByName("XYZ");
 
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void searchByName_servesLongerQueryFromCachedPrefix() {
+        when(clientStore.searchByName("Ju")).thenReturn(List.of(client));
+
+        clientService.searchByName("Ju");
+        List<ClientResponseDTO> result = clientService.searchByName("Juan");
+
+        assertThat(result).hasSize(1);
+        verify(clientStore, never()).searchByName("Juan");
+    }
+
+    @Test
+    void searchByName_hitsDatabaseAgainAfterNameChange() {
+        when(clientStore.searchByName("Juan")).thenReturn(List.of(client));
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
+        when(clientStore.findByTaxId(any())).thenReturn(Optional.of(client));
+        when(clientStore.findByEmail(any())).thenReturn(Optional.of(client));
+        when(clientStore.save(any(Client.class))).thenReturn(client);
+
+        clientService.searchByName("Juan");
+        clientService.update(1L, requestDTO);
+        clientService.searchByName("Juan");
+
+        verify(clientStore, times(2)).searchByName("Juan");
+    }
+
+    @Test
+    void findUpcomingBirthdays_continuesIntoNextYearSegment() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2026, 12, 20), 30);
+        Client december = withBirthday(5L, LocalDate.of(1990, 12, 28));
+        Client january = withBirthday(3L, LocalDate.of(1985, 1, 2));
+        Client lateJanuary = withBirthday(4L, LocalDate.of(1975, 1, 10));
+        when(clientStore.findByBirthMonthDay(1220, 1231, 1224, 9L, 3)).thenReturn(List.of(december));
+        when(clientStore.findByBirthMonthDay(101, 119, 0, 0L, 2)).thenReturn(List.of(january, lateJanuary));
+
+        ClientBirthdayPageDTO page = clientService.findUpcomingBirthdays(30, window.cursor(1224, 9L), 2);
+
+        assertThat(page.getClients()).extracting(ClientResponseDTO::getId).containsExactly(5L, 3L);
+        assertThat(page.getNextCursor()).isEqualTo(window.cursor(102, 3L));
+    }
+
+    @Test
+    void findUpcomingBirthdays_lastPageHasNoCursor() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2026, 6, 10), 7);
+        when(clientStore.findByBirthMonthDay(610, 617, 612, 1L, 3)).thenReturn(List.of(client));
+
+        ClientBirthdayPageDTO page = clientService.findUpcomingBirthdays(7, window.cursor(612, 1L), 2);
+
+        assertThat(page.getClients()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void findUpcomingBirthdays_rejectsOversizedPage() {
+        assertThatThrownBy(() -> clientService.findUpcomingBirthdays(7, null, 5_000))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(clientStore);
+    }
+
     @Test
     void create_savesAndReturnsClient() {
-        when(clientRepository.findByTaxId(any())).thenReturn(Optional.empty());
-        when(clientRepository.findByEmail(any())).thenReturn(Optional.empty());
-        when(clientRepository.save(any(Client.class))).thenReturn(client);
+        when(clientStore.findByTaxId(any())).thenReturn(Optional.empty());
+        when(clientStore.findByEmail(any())).thenReturn(Optional.empty());
+        when(clientStore.save(any(Client.class))).thenReturn(client);
 
         ClientResponseDTO result = clientService.create(requestDTO);
 
         assertThat(result.getFirstName()).isEqualTo("Juan");
         assertThat(result.getTaxId()).isEqualTo("20-12345678-9");
-        verify(clientRepository).save(any(Client.class));
+        verify(clientStore).save(any(Client.class));
     }
 
     @Test
     void create_throwsOnDuplicateTaxId() {
-        when(clientRepository.findByTaxId("20-12345678-9")).thenReturn(Optional.of(client));
+        when(clientStore.findByTaxId("20-12345678-9")).thenReturn(Optional.of(client));
 
         assertThatThrownBy(() -> clientService.create(requestDTO))
                 .isInstanceOf(DuplicateResourceException.class)
@@ -143,8 +251,8 @@ class ClientServiceImplTest {
 
     @Test
     void create_throwsOnDuplicateEmail() {
-        when(clientRepository.findByTaxId(any())).thenReturn(Optional.empty());
-        when(clientRepository.findByEmail("juan.perez@example.com")).thenReturn(Optional.of(client));
+        when(clientStore.findByTaxId(any())).thenReturn(Optional.empty());
+        when(clientStore.findByEmail("juan.perez@example.com")).thenReturn(Optional.of(client));
 
         assertThatThrownBy(() -> clientService.create(requestDTO))
                 .isInstanceOf(DuplicateResourceException.class)
@@ -176,20 +284,22 @@ class ClientServiceImplTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(clientRepository.findByTaxId("20-12345678-9")).thenReturn(Optional.of(client));
-        when(clientRepository.findByEmail("juan.perez@example.com")).thenReturn(Optional.of(client));
-        when(clientRepository.save(any(Client.class))).thenReturn(updated);
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
+        when(clientStore.findByTaxId("20-12345678-9")).thenReturn(Optional.of(client));
+        when(clientStore.findByEmail("juan.perez@example.com")).thenReturn(Optional.of(client));
+        when(clientStore.save(any(Client.class))).thenReturn(updated);
+        ClientStats.Dimensions before = ClientStats.Dimensions.of(client);
 
         ClientResponseDTO result = clientService.update(1L, updateRequest);
 
         assertThat(result.getFirstName()).isEqualTo("Juan Carlos");
         assertThat(result.getPhoneNumber()).isEqualTo("1165874999");
+        verify(clientStats).recordAfterCommit(before, ClientStats.Dimensions.of(updated));
     }
 
     @Test
     void update_throwsWhenNotFound() {
-        when(clientRepository.findById(99L)).thenReturn(Optional.empty());
+        when(clientStore.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> clientService.update(99L, requestDTO))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -200,8 +310,8 @@ class ClientServiceImplTest {
     void update_throwsOnDuplicateTaxIdFromOtherClient() {
         Client otherClient = Client.builder().id(2L).taxId("20-12345678-9").build();
 
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(clientRepository.findByTaxId("20-12345678-9")).thenReturn(Optional.of(otherClient));
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
+        when(clientStore.findByTaxId("20-12345678-9")).thenReturn(Optional.of(otherClient));
 
         assertThatThrownBy(() -> clientService.update(1L, requestDTO))
                 .isInstanceOf(DuplicateResourceException.class)
@@ -212,9 +322,9 @@ class ClientServiceImplTest {
     void update_throwsOnDuplicateEmailFromOtherClient() {
         Client otherClient = Client.builder().id(2L).email("juan.perez@example.com").build();
 
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(clientRepository.findByTaxId(any())).thenReturn(Optional.of(client));
-        when(clientRepository.findByEmail("juan.perez@example.com")).thenReturn(Optional.of(otherClient));
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
+        when(clientStore.findByTaxId(any())).thenReturn(Optional.of(client));
+        when(clientStore.findByEmail("juan.perez@example.com")).thenReturn(Optional.of(otherClient));
 
         assertThatThrownBy(() -> clientService.update(1L, requestDTO))
                 .isInstanceOf(DuplicateResourceException.class)
@@ -223,19 +333,33 @@ class ClientServiceImplTest {
 
     @Test
     void delete_deletesClient() {
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(clientStore.findById(1L)).thenReturn(Optional.of(client));
 
         clientService.delete(1L);
 
-        verify(clientRepository).delete(client);
+        verify(clientStore).delete(client);
+        verify(clientStats).recordAfterCommit(ClientStats.Dimensions.of(client), null);
     }
 
     @Test
     void delete_throwsWhenNotFound() {
-        when(clientRepository.findById(99L)).thenReturn(Optional.empty());
+        when(clientStore.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> clientService.delete(99L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("99");
     }
+
+    private Client withBirthday(Long id, LocalDate birthDate) {
+        return Client.builder()
+                .id(id)
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-1234567" + id + "-9")
+                .birthDate(birthDate)
+                .phoneNumber("1165874210")
+                .email("client" + id + "@example.com")
+                .build();
+    }
 }
@@ -0,0 +1,124 @@
+package com.challenge.clients.service;
+
+import com.challenge.clients.H2SpringBootTest;
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static com.challenge.clients.sql.SqlStatementAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for {@link ClientService} against an in-memory H2 database. Raise a
+ * budget only together with the change that needs the extra query.
+ * <p>
+ * The injected bean is the one controllers get: with write-behind enabled in the
+ * {@code h2} profile that is {@code WriteBehindClientService} wrapping
+ * {@link ClientServiceImpl}, so the budgets include whatever the decorator adds (nothing
+ * on reads; buffered updates are flushed on another thread).
+ */
+@H2SpringBootTest
+class ClientServiceStatementBudgetTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM clientes");
+    }
+
+    @Test
+    void create_selectsTaxIdAndEmailThenInserts() {
+        assertStatements(3, () -> clientService.create(request("20-12345678-9", "juan.perez@example.com")));
+    }
+
+    @Test
+    void update_selectsClientTaxIdAndEmailThenUpdates() {
+        ClientResponseDTO created = clientService.create(request("20-12345678-9", "juan.perez@example.com"));
+
+        assertStatements(4, () -> clientService.update(created.getId(),
+                request("20-12345678-9", "juan.carlos@example.com")));
+    }
+
+    @Test
+    void delete_selectsThenDeletes() {
+        ClientResponseDTO created = clientService.create(request("20-12345678-9", "juan.perez@example.com"));
+
+        assertStatements(2, () -> clientService.delete(created.getId()));
+    }
+
+    @Test
+    void findById_isOneSelect() {
+        ClientResponseDTO created = clientService.create(request("20-12345678-9", "juan.perez@example.com"));
+
+        assertStatements(1, () -> clientService.findById(created.getId()));
+    }
+
+    @Test
+    void findAll_isOneSelect() {
+        clientService.create(request("20-12345678-9", "juan.perez@example.com"));
+        clientService.create(request("27-23456789-0", "maria.gomez@example.com"));
+
+        assertStatements(1, () -> clientService.findAll());
+    }
+
+    @Test
+    void searchByName_isOneSelect() {
+        clientService.create(request("20-12345678-9", "juan.perez@example.com"));
+
+        assertStatements(1, () -> assertThat(clientService.searchByName("pere")).hasSize(1));
+    }
+
+    @Test
+    void findUpcomingBirthdays_isOneSelectPerPage() {
+        LocalDate birthDate = LocalDate.now().minusYears(30);
+        clientService.create(request("20-12345678-9", "juan.perez@example.com", birthDate));
+        clientService.create(request("27-23456789-0", "maria.gomez@example.com", birthDate));
+
+        assertStatements(1, () -> assertThat(clientService.findUpcomingBirthdays(7, null, 1).getNextCursor())
+                .isNotNull());
+    }
+
+    @Test
+    void request_reportsSqlInServerTimingHeader() throws Exception {
+        ClientResponseDTO created = clientService.create(request("20-12345678-9", "juan.perez@example.com"));
+
+        mockMvc.perform(get("/api/clients/" + created.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing",
+                        matchesPattern("db;dur=\\d+;desc=\"1 statements\"")));
+    }
+
+    private static ClientRequestDTO request(String taxId, String email) {
+        return request(taxId, email, LocalDate.of(1985, 6, 15));
+    }
+
+    private static ClientRequestDTO request(String taxId, String email, LocalDate birthDate) {
+        return ClientRequestDTO.builder()
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId(taxId)
+                .birthDate(birthDate)
+                .phoneNumber("1165874210")
+                .email(email)
+                .build();
+    }
+}
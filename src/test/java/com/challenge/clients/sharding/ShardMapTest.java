@@ -0,0 +1,53 @@
+package com.challenge.clients.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ShardMapTest {
+
+    @Test
+    void parse_assignsEveryBucketToItsShard() {
+        ShardMap map = ShardMap.parse(2, List.of("0,3", "1-2"));
+
+        assertThat(map.shardCount()).isEqualTo(2);
+        assertThat(map.shardOfBucket(0)).isZero();
+        assertThat(map.shardOfBucket(1)).isEqualTo(1);
+        assertThat(map.shardOfBucket(2)).isEqualTo(1);
+        assertThat(map.shardOfBucket(3)).isZero();
+    }
+
+    @Test
+    void parse_rejectsBucketsOutOfRange() {
+        assertThatThrownBy(() -> ShardMap.parse(2, List.of("0-4")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("0-4");
+    }
+
+    @Test
+    void parse_rejectsReversedRanges() {
+        assertThatThrownBy(() -> ShardMap.parse(2, List.of("3-0")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("3-0");
+    }
+
+    @Test
+    void parse_rejectsShardWithoutBuckets() {
+        assertThatThrownBy(() -> ShardMap.parse(2, Arrays.asList("0-3", null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Shard 1 has no buckets");
+    }
+
+    @Test
+    void parse_rejectsOverlappingAndMissingBuckets() {
+        assertThatThrownBy(() -> ShardMap.parse(2, List.of("0-2", "2-3")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than one shard");
+        assertThatThrownBy(() -> ShardMap.parse(2, List.of("0-2")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not assigned");
+    }
+}
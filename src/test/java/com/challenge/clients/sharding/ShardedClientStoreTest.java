@@ -0,0 +1,309 @@
+package com.challenge.clients.sharding;
+
+import com.challenge.clients.birthdays.BirthdayWindow;
+import com.challenge.clients.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ShardedClientStoreTest {
+
+    private final ShardMap shardMap = ShardMap.parse(2, List.of("0-1", "2-3"));
+    private final List<InMemoryShard> shards = List.of(new InMemoryShard(), new InMemoryShard());
+    private final InMemoryDirectory directory = new InMemoryDirectory();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ShardedClientStore store =
+            new ShardedClientStore(shardMap, shards, directory, executor, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void save_encodesTaxIdBucketInIdAndRoutesToOwningShard() {
+        Client saved = store.save(client("20-12345678-9", "juan.perez@example.com"));
+
+        int bucket = shardMap.bucketOfTaxId("20-12345678-9");
+        assertThat(shardMap.bucketOfId(saved.getId())).isEqualTo(bucket);
+        assertThat(shards.get(shardMap.shardOfBucket(bucket)).rows).containsKey(saved.getId());
+        assertThat(saved.getCreatedAt()).isNotNull();
+        assertThat(store.findById(saved.getId())).map(Client::getTaxId).contains("20-12345678-9");
+        assertThat(store.findByTaxId("20-12345678-9")).map(Client::getId).contains(saved.getId());
+        assertThat(store.findByEmail("juan.perez@example.com")).map(Client::getId).contains(saved.getId());
+    }
+
+    @Test
+    void save_rejectsTaxIdOwnedByClientOnAnotherShard() {
+        store.save(client("20-12345678-9", "juan.perez@example.com"));
+
+        assertThatThrownBy(() -> store.save(client("20-12345678-9", "other@example.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(directory.entries).hasSize(2);
+    }
+
+    @Test
+    void save_releasesClaimsWhenShardInsertFails() {
+        Client client = client("20-12345678-9", "juan.perez@example.com");
+        shards.forEach(s -> s.failWrites = true);
+
+        assertThatThrownBy(() -> store.save(client)).isInstanceOf(IllegalStateException.class);
+        assertThat(client.getId()).isNull();
+        assertThat(directory.entries).isEmpty();
+    }
+
+    @Test
+    void save_movesDirectoryEntriesWhenEmailChanges() {
+        Client saved = store.save(client("20-12345678-9", "juan.perez@example.com"));
+
+        saved.setEmail("juan@example.com");
+        store.save(saved);
+
+        assertThat(store.findByEmail("juan.perez@example.com")).isEmpty();
+        assertThat(store.findByEmail("juan@example.com")).map(Client::getId).contains(saved.getId());
+    }
+
+    @Test
+    void findByTaxId_fallsBackToDirectoryAfterTaxIdChange() {
+        Client saved = store.save(client("20-12345678-9", "juan.perez@example.com"));
+
+        saved.setTaxId("27-23456789-0");
+        store.save(saved);
+
+        assertThat(store.findByTaxId("27-23456789-0")).map(Client::getId).contains(saved.getId());
+        assertThat(store.findByTaxId("20-12345678-9")).isEmpty();
+    }
+
+    @Test
+    void delete_removesRowAndReleasesClaims() {
+        Client saved = store.save(client("20-12345678-9", "juan.perez@example.com"));
+
+        store.delete(saved);
+
+        assertThat(store.findById(saved.getId())).isEmpty();
+        assertThat(directory.entries).isEmpty();
+    }
+
+    @Test
+    void findAll_mergesShardsInIdOrder() {
+        for (int i = 0; i < 20; i++) {
+            store.save(client("20-" + (10_000_000 + i) + "-1", "client" + i + "@example.com"));
+        }
+
+        List<Client> all = store.findAll();
+
+        assertThat(all).hasSize(20).isSortedAccordingTo(Comparator.comparing(Client::getId));
+        assertThat(shards).allSatisfy(shard -> assertThat(shard.rows).isNotEmpty());
+    }
+
+    @Test
+    void findByBirthMonthDay_mergesShardsByMonthDayThenId() {
+        for (int i = 0; i < 20; i++) {
+            Client client = client("20-" + (10_000_000 + i) + "-1", "client" + i + "@example.com");
+            client.setBirthDate(LocalDate.of(1980 + i, 3, 1 + i % 5));
+            store.save(client);
+        }
+
+        List<Client> page = store.findByBirthMonthDay(302, 304, 0, 0, 7);
+
+        assertThat(page).hasSize(7)
+                .extracting(c -> BirthdayWindow.monthDay(c.getBirthDate()))
+                .containsExactly(302, 302, 302, 302, 303, 303, 303);
+        assertThat(page.subList(0, 4)).isSortedAccordingTo(Comparator.comparing(Client::getId));
+    }
+
+    @Test
+    void merge_stopsAtLimit() {
+        List<Client> merged = ShardedClientStore.merge(
+                List.of(List.of(withId(1), withId(4)), List.of(), List.of(withId(2), withId(3), withId(5))),
+                Comparator.comparing(Client::getId), 4);
+
+        assertThat(merged).extracting(Client::getId).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void scatterGather_timesOutWhenAShardHangs() {
+        ShardedClientStore impatient =
+                new ShardedClientStore(shardMap, shards, directory, executor, Duration.ofMillis(100));
+        CountDownLatch never = new CountDownLatch(1);
+        shards.get(1).blockReadsOn = never;
+
+        assertThatThrownBy(impatient::findAll).isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    void reshardingTool_movesBucketsToTheirNewShard() {
+        for (int i = 0; i < 20; i++) {
+            store.save(client("20-" + (10_000_000 + i) + "-1", "client" + i + "@example.com"));
+        }
+        List<Long> before = store.findAll().stream().map(Client::getId).toList();
+        ShardMap target = ShardMap.parse(2, List.of("0", "1-3"));
+        long inBucketOne = before.stream().filter(id -> shardMap.bucketOfId(id) == 1).count();
+
+        long moved = new ReshardingTool(shardMap, target, shards, 3).run();
+
+        assertThat(moved).isEqualTo(inBucketOne);
+        assertThat(shards.get(0).rows.keySet()).allMatch(id -> target.shardOfId(id) == 0);
+        assertThat(shards.get(1).rows.keySet()).allMatch(id -> target.shardOfId(id) == 1);
+        assertThat(store.findAll()).extracting(Client::getId).containsExactlyElementsOf(before);
+    }
+
+    private static Client client(String taxId, String email) {
+        return Client.builder()
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId(taxId)
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber("1165874210")
+                .email(email)
+                .build();
+    }
+
+    private static Client withId(long id) {
+        Client client = client("20-" + id, id + "@example.com");
+        client.setId(id);
+        return client;
+    }
+
+    // Shards hand out detached rows, like the JDBC implementation.
+    private static Client copy(Client c) {
+        return new Client(c.getId(), c.getFirstName(), c.getLastName(), c.getCompanyName(), c.getTaxId(),
+                c.getBirthDate(), c.getPhoneNumber(), c.getEmail(), c.getCreatedAt(), c.getUpdatedAt());
+    }
+
+    private static final class InMemoryShard implements ClientShard {
+
+        private final Map<Long, Client> rows = new TreeMap<>();
+        private volatile boolean failWrites;
+        private volatile CountDownLatch blockReadsOn;
+
+        @Override
+        public synchronized Optional<Client> findById(long id) {
+            return Optional.ofNullable(rows.get(id)).map(ShardedClientStoreTest::copy);
+        }
+
+        @Override
+        public synchronized Optional<Client> findByTaxId(String taxId) {
+            return rows.values().stream().filter(c -> c.getTaxId().equals(taxId)).findFirst();
+        }
+
+        @Override
+        public List<Client> findAll() {
+            awaitUnblocked();
+            synchronized (this) {
+                return List.copyOf(rows.values());
+            }
+        }
+
+        @Override
+        public synchronized List<Client> searchByName(String name) {
+            return rows.values().stream().filter(c -> c.getFirstName().contains(name)).toList();
+        }
+
+        @Override
+        public synchronized List<Client> findByBirthMonthDay(int fromMonthDay, int toMonthDay, int afterMonthDay,
+                                                             long afterId, int limit) {
+            return rows.values().stream()
+                    .filter(c -> {
+                        int monthDay = BirthdayWindow.monthDay(c.getBirthDate());
+                        return monthDay >= fromMonthDay && monthDay <= toMonthDay
+                                && (monthDay > afterMonthDay || monthDay == afterMonthDay && c.getId() > afterId);
+                    })
+                    .sorted(Comparator.comparingInt((Client c) -> BirthdayWindow.monthDay(c.getBirthDate()))
+                            .thenComparing(Client::getId))
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public synchronized void insert(Client client) {
+            if (failWrites) {
+                throw new IllegalStateException("shard unavailable");
+            }
+            rows.put(client.getId(), copy(client));
+        }
+
+        @Override
+        public synchronized boolean update(Client client) {
+            return rows.replace(client.getId(), copy(client)) != null;
+        }
+
+        @Override
+        public synchronized boolean delete(long id) {
+            return rows.remove(id) != null;
+        }
+
+        @Override
+        public synchronized List<Client> findBucket(int bucket, int bucketCount, long afterId, int limit) {
+            return rows.values().stream()
+                    .filter(c -> (c.getId() & (bucketCount - 1)) == bucket && c.getId() > afterId)
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public synchronized void copyIn(List<Client> clients) {
+            clients.forEach(c -> rows.putIfAbsent(c.getId(), c));
+        }
+
+        @Override
+        public synchronized void deleteAll(Collection<Long> ids) {
+            ids.forEach(rows::remove);
+        }
+
+        private void awaitUnblocked() {
+            CountDownLatch latch = blockReadsOn;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static final class InMemoryDirectory implements ClientDirectory {
+
+        private final Map<String, Long> entries = new HashMap<>();
+        private final AtomicLong sequence = new AtomicLong();
+
+        @Override
+        public long nextSequence() {
+            return sequence.incrementAndGet();
+        }
+
+        @Override
+        public synchronized boolean claim(Key key, String value, long clientId) {
+            return entries.computeIfAbsent(key.code() + value, k -> clientId) == clientId;
+        }
+
+        @Override
+        public synchronized void release(Key key, String value, long clientId) {
+            entries.remove(key.code() + value, clientId);
+        }
+
+        @Override
+        public synchronized Optional<Long> lookup(Key key, String value) {
+            return Optional.ofNullable(entries.get(key.code() + value));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.challenge.clients.sql;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Locks in how many SQL statements an operation issues, so an extra query per request
+ * fails a test instead of showing up in production. Requires the instrumented
+ * datasource ({@link SqlInstrumentationConfig}) and counts only the calling thread.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertStatements(int expected, Supplier<T> operation) {
+        SqlStatistics statistics = SqlStatistics.startLogging();
+        try {
+            T result = operation.get();
+            assertThat(statistics.statements())
+                    .as("SQL statements issued:%n  %s", String.join(System.lineSeparator() + "  ",
+                            statistics.statementLog()))
+                    .isEqualTo(expected);
+            return result;
+        } finally {
+            SqlStatistics.stop();
+        }
+    }
+
+    public static void assertStatements(int expected, Runnable operation) {
+        assertStatements(expected, () -> {
+            operation.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.challenge.clients.stats;
+
+import com.challenge.clients.dto.ClientStatsDTO;
+import com.challenge.clients.exception.StatsNotReadyException;
+import com.challenge.clients.model.Client;
+import com.challenge.clients.sharding.ShardedClientStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientStatsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<ShardedClientStore> shardedStore;
+
+    private ClientStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new ClientStats(jdbcTemplate, shardedStore, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Test
+    void dimensions_deriveDecadePrefixAndMonth() {
+        ClientStats.Dimensions dimensions = ClientStats.Dimensions.of(client("JP Servicios SRL", "20-12345678-9"));
+
+        assertThat(dimensions).isEqualTo(new ClientStats.Dimensions("JP Servicios SRL", "1980", "20", "2024-03"));
+    }
+
+    @Test
+    void recordAfterCommit_createUpdateDelete() {
+        ClientStats.Dimensions original = ClientStats.Dimensions.of(client("JP Servicios SRL", "20-12345678-9"));
+        ClientStats.Dimensions renamed = ClientStats.Dimensions.of(client("JC Servicios SRL", "20-12345678-9"));
+        ClientStats.Dimensions other = ClientStats.Dimensions.of(client("MG Soluciones", "27-23456789-0"));
+
+        stats.recordAfterCommit(null, original);
+        stats.recordAfterCommit(null, other);
+        stats.recordAfterCommit(original, renamed);
+        stats.recordAfterCommit(other, null);
+
+        ClientStatsDTO snapshot = stats.snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(1);
+        assertThat(snapshot.getByCompany()).containsExactly(Map.entry("JC Servicios SRL", 1L));
+        assertThat(snapshot.getByTaxIdPrefix()).containsExactly(Map.entry("20", 1L));
+        assertThat(snapshot.getByBirthDecade()).containsExactly(Map.entry("1980", 1L));
+        assertThat(snapshot.getByCreationMonth()).containsExactly(Map.entry("2024-03", 1L));
+    }
+
+    @Test
+    void encoded_refusesToServeBeforeFirstReconciliation() {
+        stats.recordAfterCommit(null, ClientStats.Dimensions.of(client("JP Servicios SRL", "20-12345678-9")));
+
+        assertThatThrownBy(stats::encoded).isInstanceOf(StatsNotReadyException.class);
+
+        stats.reconcile();
+
+        assertThat(new String(stats.encoded())).contains("\"total\":0");
+    }
+
+    @Test
+    void encoded_isReusedUntilCountersChange() {
+        stats.reconcile();
+        stats.recordAfterCommit(null, ClientStats.Dimensions.of(client("JP Servicios SRL", "20-12345678-9")));
+
+        byte[] first = stats.encoded();
+        assertThat(stats.encoded()).isSameAs(first);
+        assertThat(new String(first)).contains("\"total\":1", "\"JP Servicios SRL\":1");
+
+        stats.recordAfterCommit(null, ClientStats.Dimensions.of(client("MG Soluciones", "27-23456789-0")));
+
+        assertThat(stats.encoded()).isNotSameAs(first);
+        assertThat(new String(stats.encoded())).contains("\"total\":2");
+    }
+
+    @Test
+    void reconcile_replacesCountersAndReplaysChangesCommittedDuringScan() throws Exception {
+        stats.recordAfterCommit(null, ClientStats.Dimensions.of(client("Stale SA", "30-11111111-1")));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("company")).thenReturn("JP Servicios SRL", null, null, null, null);
+        when(rs.getString("decade")).thenReturn(null, "1980", null, null, null);
+        when(rs.getString("prefix")).thenReturn(null, null, "20", null, null);
+        when(rs.getString("month")).thenReturn(null, null, null, "2024-03", null);
+        when(rs.getLong("total")).thenReturn(4L, 4L, 4L, 4L, 4L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            stats.recordAfterCommit(null, ClientStats.Dimensions.of(client("MG Soluciones", "27-23456789-0")));
+            for (int row = 0; row < 5; row++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(ClientStats.RECONCILE_SQL), any(RowCallbackHandler.class));
+
+        stats.reconcile();
+
+        ClientStatsDTO snapshot = stats.snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(5);
+        assertThat(snapshot.getByCompany()).containsOnlyKeys("JP Servicios SRL", "MG Soluciones");
+        assertThat(snapshot.getByTaxIdPrefix()).containsEntry("20", 4L).containsEntry("27", 1L);
+        assertThat(snapshot.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void reconcile_sumsGroupsAcrossShards() throws Exception {
+        ShardedClientStore store = mock(ShardedClientStore.class);
+        when(shardedStore.getIfAvailable()).thenReturn(store);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("company")).thenReturn("JP Servicios SRL", null, "JP Servicios SRL", null);
+        when(rs.getString("decade")).thenReturn((String) null);
+        when(rs.getString("prefix")).thenReturn((String) null);
+        when(rs.getString("month")).thenReturn((String) null);
+        when(rs.getLong("total")).thenReturn(2L, 2L, 3L, 3L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int row = 0; row < 4; row++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(store).queryEachShard(eq(ClientStats.RECONCILE_SQL), any(RowCallbackHandler.class));
+
+        stats.reconcile();
+
+        assertThat(stats.snapshot().getTotal()).isEqualTo(5);
+        assertThat(stats.snapshot().getByCompany()).containsExactly(Map.entry("JP Servicios SRL", 5L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void reconcile_keepsCountersWhenQueryFails() {
+        stats.recordAfterCommit(null, ClientStats.Dimensions.of(client("JP Servicios SRL", "20-12345678-9")));
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(jdbcTemplate).query(eq(ClientStats.RECONCILE_SQL), any(RowCallbackHandler.class));
+
+        stats.reconcile();
+
+        assertThat(stats.snapshot().getTotal()).isEqualTo(1);
+        assertThat(stats.snapshot().getReconciledAt()).isNull();
+    }
+
+    private static Client client(String company, String taxId) {
+        return Client.builder()
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName(company)
+                .taxId(taxId)
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber("1165874210")
+                .email("juan.perez@example.com")
+                .createdAt(LocalDateTime.of(2024, 3, 10, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,360 @@
+package com.challenge.clients.writebehind;
+
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.dto.ContactUpdateStatusDTO.Status;
+import com.challenge.clients.exception.DuplicateResourceException;
+import com.challenge.clients.model.Client;
+import com.challenge.clients.repository.ClientStore;
+import com.challenge.clients.service.ClientServiceImpl;
+import com.challenge.clients.sharding.ShardedClientStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactUpdateBufferTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 9, 30);
+
+    @Mock
+    private ClientServiceImpl clientService;
+
+    @Mock
+    private ClientStore clientStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    private final List<ContactUpdateBuffer> buffers = new ArrayList<>();
+    private ContactUpdateBuffer buffer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        buffer = newBuffer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        // Shutting down flushes whatever each test left pending.
+        lenient().when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList()))
+                .thenAnswer(invocation -> new int[invocation.<List<Object[]>>getArgument(1).size()]);
+        for (ContactUpdateBuffer b : buffers) {
+            b.shutdown();
+        }
+    }
+
+    @Test
+    void accept_coalescesUpdatesToTheSameClient() throws Exception {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList())).thenReturn(new int[]{1});
+
+        long first = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        long second = buffer.accept(1L, request("1100000002", "juan.perez@example.com")).orElseThrow();
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+        assertThat(buffer.status(second).getStatus()).isEqualTo(Status.PENDING);
+
+        buffer.flush();
+
+        List<Object[]> rows = capturedRows();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[0]).isEqualTo("1100000002");
+        assertThat(rows.get(0)[3]).isEqualTo(1L);
+        assertThat(buffer.status(first).getStatus()).isEqualTo(Status.FLUSHED);
+        assertThat(buffer.status(second).getStatus()).isEqualTo(Status.FLUSHED);
+        verify(clientService).refresh(1L, "Juan", "Perez");
+    }
+
+    @Test
+    void accept_returnsEmptyWhenOtherFieldsChange() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        ClientRequestDTO request = request("1100000001", "juan.perez@example.com");
+        request.setCompanyName("Otra SRL");
+
+        assertThat(buffer.accept(1L, request)).isEmpty();
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void accept_rejectsEmailOwnedByAnotherClient() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(clientStore.findByEmail("maria.gomez@example.com"))
+                .thenReturn(Optional.of(Client.builder().id(2L).email("maria.gomez@example.com").build()));
+
+        assertThatThrownBy(() -> buffer.accept(1L, request("1100000001", "maria.gomez@example.com")))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void accept_rejectsEmailBufferedForAnotherClient() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(clientService.findById(2L)).thenReturn(client(2L, "maria.gomez@example.com"));
+        when(clientStore.findByEmail("nuevo@example.com")).thenReturn(Optional.empty());
+
+        buffer.accept(1L, request("1100000001", "nuevo@example.com"));
+
+        assertThatThrownBy(() -> buffer.accept(2L, request("1100000002", "nuevo@example.com")))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void overlay_showsBufferedContactUntilFlushed() {
+        ClientResponseDTO stored = client(1L, "juan.perez@example.com");
+        when(clientService.findById(1L)).thenReturn(stored);
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList())).thenReturn(new int[]{1});
+
+        buffer.accept(1L, request("1100000001", "juan.perez@example.com"));
+        ClientResponseDTO overlaid = buffer.overlay(stored);
+
+        assertThat(overlaid.getPhoneNumber()).isEqualTo("1100000001");
+        assertThat(overlaid.getUpdatedAt()).isAfter(CREATED);
+        assertThat(stored.getPhoneNumber()).isEqualTo("1165874210");
+
+        buffer.flush();
+
+        assertThat(buffer.overlay(stored)).isSameAs(stored);
+    }
+
+    @Test
+    void overlay_ignoresBufferWhenClientChangedAfterAccept() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        buffer.accept(1L, request("1100000001", "juan.perez@example.com"));
+
+        ClientResponseDTO newer = client(1L, "juan.perez@example.com");
+        newer.setUpdatedAt(LocalDateTime.now().plusMinutes(1));
+
+        assertThat(buffer.overlay(newer)).isSameAs(newer);
+    }
+
+    @Test
+    void flush_rejectsRowsModifiedAfterAccept() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList())).thenReturn(new int[]{0});
+
+        long sequence = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        buffer.flush();
+
+        assertThat(buffer.status(sequence).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(buffer.status(sequence).getError()).isEqualTo(ContactUpdateBuffer.CHANGED_AFTER_ACCEPT);
+        assertThat(buffer.pendingCount()).isZero();
+        verify(clientService, never()).refresh(any(), any(), any());
+    }
+
+    @Test
+    void flush_stopsAndKeepsUpdatesPendingWhenTheRejectionCannotBeLogged() throws Exception {
+        WriteAheadLog wal = spy(new WriteAheadLog(dir.resolve("failing.wal"),
+                Jackson2ObjectMapperBuilder.json().build(), 1 << 20));
+        ContactUpdateBuffer failing = new ContactUpdateBuffer(clientService, clientStore, jdbcTemplate,
+                transactionManager, new SimpleMeterRegistry(), wal, 1);
+        buffers.add(failing);
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(clientService.findById(2L)).thenReturn(client(2L, "maria.gomez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList())).thenReturn(new int[]{0});
+        doThrow(new IOException("disk full")).when(wal).rejected(anyList(), any());
+
+        long first = failing.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        long second = failing.accept(2L, request("1100000002", "maria.gomez@example.com")).orElseThrow();
+        // With a batch size of 1 the update left pending fills the next batch too; the flush
+        // must give up instead of picking it again.
+        assertTimeoutPreemptively(Duration.ofSeconds(5), failing::flush);
+
+        assertThat(failing.status(first).getStatus()).isEqualTo(Status.PENDING);
+        assertThat(failing.status(second).getStatus()).isEqualTo(Status.PENDING);
+
+        doCallRealMethod().when(wal).rejected(anyList(), any());
+        failing.flush();
+
+        assertThat(failing.status(first).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(failing.status(second).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(failing.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_retriesRowByRowOnConstraintViolation() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(clientService.findById(2L)).thenReturn(client(2L, "maria.gomez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.size() > 1 || rows.get(0)[3].equals(2L)) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return new int[]{1};
+        });
+
+        long first = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        long second = buffer.accept(2L, request("1100000002", "maria.gomez@example.com")).orElseThrow();
+        buffer.flush();
+
+        assertThat(buffer.status(first).getStatus()).isEqualTo(Status.FLUSHED);
+        assertThat(buffer.status(second).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_keepsUpdatesPendingOnTransientFailure() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+
+        long sequence = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        buffer.flush();
+
+        assertThat(buffer.status(sequence).getStatus()).isEqualTo(Status.PENDING);
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+
+        buffer.flush();
+
+        assertThat(buffer.status(sequence).getStatus()).isEqualTo(Status.FLUSHED);
+    }
+
+    @Test
+    void restart_recoversUnflushedUpdatesFromTheLog() throws Exception {
+        ClientResponseDTO stored = client(1L, "juan.perez@example.com");
+        when(clientService.findById(1L)).thenReturn(stored);
+
+        long sequence = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        ContactUpdateBuffer restarted = newBuffer();
+
+        assertThat(restarted.pendingCount()).isEqualTo(1);
+        assertThat(restarted.status(sequence).getStatus()).isEqualTo(Status.PENDING);
+        assertThat(restarted.overlay(stored).getPhoneNumber()).isEqualTo("1100000001");
+    }
+
+    @Test
+    void status_supersededUpdateTakesTheOutcomeOfItsReplacement() {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList())).thenReturn(new int[]{0});
+
+        long first = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        long second = buffer.accept(1L, request("1100000002", "juan.perez@example.com")).orElseThrow();
+        buffer.flush();
+
+        assertThat(buffer.status(second).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(buffer.status(first).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(buffer.status(first).getError()).isEqualTo(ContactUpdateBuffer.CHANGED_AFTER_ACCEPT);
+    }
+
+    @Test
+    void restart_reportsSupersededUpdatePendingWhileItsReplacementIs() throws Exception {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+
+        long first = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        buffer.accept(1L, request("1100000002", "juan.perez@example.com"));
+        ContactUpdateBuffer restarted = newBuffer();
+
+        assertThat(restarted.status(first).getStatus()).isEqualTo(Status.PENDING);
+    }
+
+    @Test
+    void restart_doesNotReplayRejectedUpdates() throws Exception {
+        when(clientService.findById(1L)).thenReturn(client(1L, "juan.perez@example.com"));
+        when(clientService.findById(2L)).thenReturn(client(2L, "maria.gomez@example.com"));
+        when(jdbcTemplate.batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        long first = buffer.accept(1L, request("1100000001", "juan.perez@example.com")).orElseThrow();
+        long second = buffer.accept(2L, request("1100000002", "maria.gomez@example.com")).orElseThrow();
+        buffer.flush();
+        ContactUpdateBuffer restarted = newBuffer();
+
+        assertThat(restarted.pendingCount()).isEqualTo(1);
+        assertThat(restarted.status(first).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(restarted.status(first).getError()).contains("already in use");
+        assertThat(restarted.status(second).getStatus()).isEqualTo(Status.PENDING);
+    }
+
+    @Test
+    void constructor_refusesShardedStore() {
+        assertThatThrownBy(() -> new ContactUpdateBuffer(clientService, mock(ShardedClientStore.class), jdbcTemplate,
+                transactionManager, Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(),
+                dir.resolve("sharded.wal"), 100, 1 << 20))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("clients.sharding.enabled");
+    }
+
+    @Test
+    void status_rejectsUnknownSequence() {
+        assertThatThrownBy(() -> buffer.status(1))
+                .hasMessageContaining("Contact update not found");
+    }
+
+    private ContactUpdateBuffer newBuffer() throws Exception {
+        ContactUpdateBuffer created = new ContactUpdateBuffer(clientService, clientStore, jdbcTemplate,
+                transactionManager, Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(),
+                dir.resolve("write-behind.wal"), 100, 1 << 20);
+        buffers.add(created);
+        return created;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> capturedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ContactUpdateBuffer.UPDATE_SQL), rows.capture());
+        return rows.getValue();
+    }
+
+    private static ClientResponseDTO client(Long id, String email) {
+        return ClientResponseDTO.builder()
+                .id(id)
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-12345678-9")
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber("1165874210")
+                .email(email)
+                .createdAt(CREATED)
+                .updatedAt(CREATED)
+                .build();
+    }
+
+    private static ClientRequestDTO request(String phone, String email) {
+        return ClientRequestDTO.builder()
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-12345678-9")
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber(phone)
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.challenge.clients.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_assignsIncreasingSequencesAndSyncsOnDemand() throws Exception {
+        try (WriteAheadLog wal = open(1 << 20)) {
+            ContactUpdate first = wal.append(sequence -> update(sequence, 1, "111"));
+            ContactUpdate second = wal.append(sequence -> update(sequence, 2, "222"));
+
+            assertThat(first.sequence()).isEqualTo(1);
+            assertThat(second.sequence()).isEqualTo(2);
+            assertThat(wal.durableSequence()).isZero();
+
+            wal.awaitDurable(1);
+
+            assertThat(wal.durableSequence()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void recover_keepsLatestUpdatePerClientAfterCheckpoint() throws Exception {
+        try (WriteAheadLog wal = open(1 << 20)) {
+            wal.append(sequence -> update(sequence, 1, "111"));
+            wal.append(sequence -> update(sequence, 2, "222"));
+            wal.checkpoint(2, List.of());
+            wal.append(sequence -> update(sequence, 3, "333"));
+            wal.append(sequence -> update(sequence, 3, "334"));
+            wal.append(sequence -> update(sequence, 4, "444"));
+        }
+
+        try (WriteAheadLog wal = open(1 << 20)) {
+            assertThat(wal.recovered())
+                    .extracting(ContactUpdate::sequence, ContactUpdate::phoneNumber)
+                    .containsExactly(tuple(4L, "334"), tuple(5L, "444"));
+            assertThat(wal.lastSequence()).isEqualTo(5);
+            assertThat(wal.append(sequence -> update(sequence, 5, "555")).sequence()).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void recover_skipsFlushedAndRejectedUpdatesAboveCheckpoint() throws Exception {
+        try (WriteAheadLog wal = open(1 << 20)) {
+            wal.append(sequence -> update(sequence, 1, "111"));
+            wal.append(sequence -> update(sequence, 2, "222"));
+            wal.append(sequence -> update(sequence, 3, "333"));
+            wal.flushed(List.of(1L));
+            wal.rejected(List.of(2L), "Email client2@example.com is already in use");
+        }
+
+        try (WriteAheadLog wal = open(1 << 20)) {
+            assertThat(wal.recovered()).extracting(ContactUpdate::sequence).containsExactly(3L);
+            assertThat(wal.rejection(2)).isEqualTo("Email client2@example.com is already in use");
+            assertThat(wal.rejection(1)).isNull();
+        }
+    }
+
+    @Test
+    void checkpoint_keepsRejectionsAcrossCompaction() throws Exception {
+        try (WriteAheadLog wal = open(1)) {
+            wal.append(sequence -> update(sequence, 1, "111"));
+            wal.append(sequence -> update(sequence, 2, "222"));
+            wal.rejected(List.of(1L, 2L), "rejected");
+            wal.checkpoint(2, List.of());
+        }
+
+        try (WriteAheadLog wal = open(1)) {
+            assertThat(wal.recovered()).isEmpty();
+            assertThat(wal.rejection(1)).isEqualTo("rejected");
+            assertThat(wal.rejection(2)).isEqualTo("rejected");
+        }
+    }
+
+    @Test
+    void recover_dropsIncompleteLastRecord() throws Exception {
+        try (WriteAheadLog wal = open(1 << 20)) {
+            wal.append(sequence -> update(sequence, 1, "111"));
+        }
+        Files.writeString(path(), "{\"sequence\":2,\"clientId\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (WriteAheadLog wal = open(1 << 20)) {
+            assertThat(wal.recovered()).extracting(ContactUpdate::sequence).containsExactly(1L);
+            wal.append(sequence -> update(sequence, 2, "222"));
+        }
+
+        try (WriteAheadLog wal = open(1 << 20)) {
+            assertThat(wal.recovered()).extracting(ContactUpdate::sequence).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    void checkpoint_compactsToPendingUpdatesOnceOverLimit() throws Exception {
+        ContactUpdate pending;
+        try (WriteAheadLog wal = open(1)) {
+            for (int i = 0; i < 10; i++) {
+                wal.append(sequence -> update(sequence, sequence, "111"));
+            }
+            pending = wal.append(sequence -> update(sequence, 99, "999"));
+
+            wal.checkpoint(10, List.of(pending));
+        }
+
+        assertThat(Files.readAllLines(path())).hasSize(2);
+        try (WriteAheadLog wal = open(1)) {
+            assertThat(wal.recovered()).containsExactly(pending);
+            assertThat(wal.lastSequence()).isEqualTo(11);
+        }
+    }
+
+    @Test
+    void recover_keepsSequenceAfterEverythingWasCompactedAway() throws Exception {
+        try (WriteAheadLog wal = open(1)) {
+            wal.append(sequence -> update(sequence, 1, "111"));
+            wal.append(sequence -> update(sequence, 2, "222"));
+            wal.checkpoint(2, List.of());
+        }
+
+        try (WriteAheadLog wal = open(1)) {
+            assertThat(wal.recovered()).isEmpty();
+            assertThat(wal.append(sequence -> update(sequence, 3, "333")).sequence()).isEqualTo(3);
+        }
+    }
+
+    private WriteAheadLog open(long compactBytes) throws Exception {
+        return new WriteAheadLog(path(), objectMapper, compactBytes);
+    }
+
+    private Path path() {
+        return dir.resolve("write-behind.wal");
+    }
+
+    private static ContactUpdate update(long sequence, long clientId, String phone) {
+        return new ContactUpdate(sequence, clientId, "Juan", "Perez", phone, "client" + clientId + "@example.com",
+                LocalDateTime.of(2026, 1, 1, 9, 30), List.of());
+    }
+}
@@ -0,0 +1,85 @@
+package com.challenge.clients.writebehind;
+
+import com.challenge.clients.H2SpringBootTest;
+import com.challenge.clients.dto.ClientRequestDTO;
+import com.challenge.clients.dto.ClientResponseDTO;
+import com.challenge.clients.dto.ContactUpdateStatusDTO.Status;
+import com.challenge.clients.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the flush statement against H2 to check the {@code fecha_modificacion} guard.
+ */
+@H2SpringBootTest
+class WriteBehindFlushTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContactUpdateBuffer buffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        buffer.flush();
+        jdbcTemplate.update("DELETE FROM clientes");
+    }
+
+    @Test
+    void flush_writesLatestContactAndReadsStayConsistent() {
+        ClientResponseDTO created = clientService.create(request("1165874210", "juan.perez@example.com"));
+
+        buffer.accept(created.getId(), request("1100000001", "juan.perez@example.com"));
+        long sequence = buffer.accept(created.getId(), request("1100000002", "juan.nuevo@example.com"))
+                .orElseThrow();
+
+        assertThat(clientService.findById(created.getId()).getEmail()).isEqualTo("juan.nuevo@example.com");
+        assertThat(phoneInDatabase(created.getId())).isEqualTo("1165874210");
+
+        buffer.flush();
+
+        assertThat(buffer.status(sequence).getStatus()).isEqualTo(Status.FLUSHED);
+        assertThat(phoneInDatabase(created.getId())).isEqualTo("1100000002");
+        assertThat(clientService.findById(created.getId()).getEmail()).isEqualTo("juan.nuevo@example.com");
+    }
+
+    @Test
+    void flush_skipsClientUpdatedSynchronouslyAfterAccept() {
+        ClientResponseDTO created = clientService.create(request("1165874210", "juan.perez@example.com"));
+        long sequence = buffer.accept(created.getId(), request("1100000001", "juan.perez@example.com"))
+                .orElseThrow();
+
+        clientService.update(created.getId(), request("1199999999", "juan.perez@example.com"));
+        buffer.flush();
+
+        assertThat(buffer.status(sequence).getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(phoneInDatabase(created.getId())).isEqualTo("1199999999");
+        assertThat(clientService.findById(created.getId()).getPhoneNumber()).isEqualTo("1199999999");
+    }
+
+    private String phoneInDatabase(Long id) {
+        return jdbcTemplate.queryForObject("SELECT telefono_celular FROM clientes WHERE id = ?", String.class, id);
+    }
+
+    private static ClientRequestDTO request(String phone, String email) {
+        return ClientRequestDTO.builder()
+                .firstName("Juan")
+                .lastName("Perez")
+                .companyName("JP Servicios SRL")
+                .taxId("20-12345678-9")
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .phoneNumber(phone)
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+-- Seeds 10M synthetic clients for BirthdayQueryBenchmark. Run against a database
+-- created from schema.sql (takes a few minutes):
+--   psql -h localhost -p 5433 -U postgres -d clients_db -f src/test/resources/benchmark/birthdays-10m.sql
+ALTER TABLE clientes DISABLE TRIGGER clientes_notify_change;
+
+INSERT INTO clientes (nombre, apellido, razon_social, cuit, fecha_nacimiento, telefono_celular, email)
+SELECT 'Nombre' || g,
+       'Apellido' || (g % 50000),
+       'Empresa ' || (g % 10000),
+       (ARRAY['20', '23', '27', '30'])[1 + g % 4] || '-' || LPAD(g::TEXT, 8, '0') || '-' || (g % 10),
+       DATE '1940-01-01' + (RANDOM() * 25000)::INT,
+       '11' || LPAD((g % 100000000)::TEXT, 8, '0'),
+       'cliente' || g || '@example.com'
+FROM generate_series(1, 10000000) AS g;
+
+ALTER TABLE clientes ENABLE TRIGGER clientes_notify_change;
+
+VACUUM ANALYZE clientes;
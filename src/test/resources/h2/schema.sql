@@ -0,0 +1,18 @@
+-- Objects from schema.sql that Hibernate does not create: tables and columns no JPA
+-- entity maps, and the functions behind native queries.
+CREATE TABLE IF NOT EXISTS client_duplicate_candidates (
+    run_id BIGINT NOT NULL,
+    cluster_id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    score REAL NOT NULL,
+    reviewed BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (run_id, client_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS client_duplicate_runs_seq;
+
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS birth_month_day SMALLINT GENERATED ALWAYS AS
+    (EXTRACT(MONTH FROM fecha_nacimiento) * 100 + EXTRACT(DAY FROM fecha_nacimiento));
+
+CREATE ALIAS IF NOT EXISTS search_clients_by_name FOR 'com.challenge.clients.H2Functions.searchClientsByName';